@@ -1,12 +1,19 @@
 package com.codehusky.huskyui;
 
-import com.codehusky.huskyui.states.element.ActionableElement;
+import com.codehusky.huskyui.data.ElementIdData;
+import com.codehusky.huskyui.data.HuskyKeys;
 import com.codehusky.huskyui.states.element.Element;
 import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.item.ItemType;
 import org.spongepowered.api.item.ItemTypes;
+import org.spongepowered.api.item.inventory.Inventory;
 import org.spongepowered.api.item.inventory.ItemStack;
+import org.spongepowered.api.item.inventory.ItemStackSnapshot;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Optional;
 
@@ -19,29 +26,82 @@ import java.util.Optional;
  * Elements delivered to player inventories will be placed in the first available slot unless specified otherwise.
  * <br><br>
  * <div style="color:red"><h2>!! WARNING !!</h2></div>
- * <b>Enforcing a slot id for an auto element will result on player's inventories being cleared every time they log in.</b><br>
+ * <b>Enforcing a slot id for an auto element will result in whatever a player has in that slot being replaced every time they log in, respawn or change worlds.</b><br>
  * <b>Please use this feature with care! By default, you should not do this. Make it controlled via config (default off) or be very explicit in disclosure of this feature.</b><br>
  * <b>Improper warning of this feature could be disastrous for some servers.</b><br>
  *
  */
 public class ElementRegistry extends StateContainer {
 
-    private HashMap<Integer, Element> elements;
+    /**
+     * Registered elements, indexed directly by their element id.
+     */
+    private Element[] elements;
 
-    //position, element id
-    private HashMap<Integer, Integer> autoInvLocations;
-    private ArrayList<Integer> autoInvElements;
+    /**
+     * Pre-tagged snapshots of every registered element, indexed like {@link #elements}.
+     */
+    private ItemStackSnapshot[] snapshots;
+
+    /**
+     * Element ids that are delivered automatically.
+     */
+    private final BitSet autoInvElements;
+
+    /**
+     * Element ids that are bound to at least one fixed slot.
+     */
+    private final BitSet fixedAutoElements;
+
+    /**
+     * Fixed slot positions to element ids, -1 when a slot is unbound.
+     */
+    private int[] autoInvLocations;
+
+    /**
+     * Reverse index of {@link #autoInvLocations}: element id to the slots it is bound to.
+     * Only allocated for elements that actually have a fixed slot.
+     */
+    private BitSet[] elementSlots;
+
+    /**
+     * Slot to snapshot plan applied to player inventories, rebuilt lazily after any auto-inv change.
+     */
+    private ItemStackSnapshot[] hotbarPlan;
+
+    /**
+     * Auto elements without a fixed slot, delivered wherever they fit. Built alongside {@link #hotbarPlan}.
+     */
+    private int[] floatingAutoElements;
+
+    /**
+     * How many registered elements use each ItemType.<br>
+     * Items of any other type can never be a registered element and are rejected before their tag is read.
+     */
+    private final HashMap<ItemType, Integer> elementTypes;
+
+    private long prefilterHits = 0;
+    private long prefilterMisses = 0;
 
     private int elementIncrement = 0;
 
+    /**
+     * Where element ids were stored before {@link HuskyKeys#ELEMENT_ID} existed.
+     */
+    private static final DataQuery LEGACY_REGID = DataQuery.of("UnsafeData", "regid");
+
     /**
      * Initialization for Registry.
      * For use only by the HuskyUI main class.
      */
     ElementRegistry() {
-        elements = new HashMap<>();
-        autoInvLocations = new HashMap<>();
-        autoInvElements = new ArrayList<>();
+        elements = new Element[16];
+        snapshots = new ItemStackSnapshot[16];
+        elementSlots = new BitSet[16];
+        autoInvLocations = new int[0];
+        autoInvElements = new BitSet();
+        fixedAutoElements = new BitSet();
+        elementTypes = new HashMap<>();
     }
 
 
@@ -53,11 +113,63 @@ public class ElementRegistry extends StateContainer {
      */
     public int registerElement(Element element){
         int key = elementIncrement;
-        elements.put(key,element);
+        if(key == elements.length){
+            elements = Arrays.copyOf(elements, key * 2);
+            snapshots = Arrays.copyOf(snapshots, key * 2);
+            elementSlots = Arrays.copyOf(elementSlots, key * 2);
+        }
+        elements[key] = element;
+        snapshots[key] = createTaggedSnapshot(key, element);
+        trackType(snapshots[key].getType());
         elementIncrement++;
         return key;
     }
 
+    /**
+     * Replace the element registered under an existing id.<br>
+     * The cached item for that id is rebuilt, auto and fixed slot settings are kept.
+     *
+     * @param id ElementID to re-register
+     * @param element Element to register under that id
+     */
+    public void reregisterElement(int id, Element element){
+        if(!elementExists(id)){
+            throw new RuntimeException("Cannot re-register element: Element id \"" + id + "\" is not registered.");
+        }
+        elements[id] = element;
+        invalidateElement(id);
+    }
+
+    /**
+     * Rebuild the cached item of an element.<br>
+     * Only needed if the ItemStack of a registered element was modified after registration.
+     *
+     * @param id ElementID to rebuild
+     */
+    public void invalidateElement(int id){
+        if(!elementExists(id)){
+            throw new RuntimeException("Cannot invalidate element: Element id \"" + id + "\" is not registered.");
+        }
+        untrackType(snapshots[id].getType());
+        snapshots[id] = createTaggedSnapshot(id, elements[id]);
+        trackType(snapshots[id].getType());
+        hotbarPlan = null;
+    }
+
+    private void trackType(ItemType type){
+        elementTypes.merge(type, 1, Integer::sum);
+    }
+
+    private void untrackType(ItemType type){
+        elementTypes.computeIfPresent(type, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static ItemStackSnapshot createTaggedSnapshot(int id, Element element){
+        ItemStack stack = element.getItem().copy();
+        stack.offer(new ElementIdData(id));
+        return stack.createSnapshot();
+    }
+
     /**
      * Unregister an element from the Registry.<br>
      * Note that this will not remove an item from a player registered to this ID, so use of this method is heavily discouraged.
@@ -65,14 +177,20 @@ public class ElementRegistry extends StateContainer {
      * @param id Element to unregister
      */
     public void unregisterElement(int id){
-        if(elements.containsKey(id)){
-            elements.remove(id);
-            if(autoInvElements.contains(id)){
-                autoInvElements.remove(id);
-                if(autoInvLocations.values().contains(id)){
-                    autoInvLocations.values().removeIf(val -> id == val);
+        if(elementExists(id)){
+            untrackType(snapshots[id].getType());
+            elements[id] = null;
+            snapshots[id] = null;
+            autoInvElements.clear(id);
+            if(fixedAutoElements.get(id)){
+                BitSet slots = elementSlots[id];
+                for(int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)){
+                    autoInvLocations[slot] = -1;
                 }
+                elementSlots[id] = null;
+                fixedAutoElements.clear(id);
             }
+            hotbarPlan = null;
         }else{
             throw new RuntimeException("Cannot unregister element: Element id \"" + id + "\" is not registered.");
         }
@@ -87,7 +205,8 @@ public class ElementRegistry extends StateContainer {
      */
     public int registerAutoElement(Element element){
         int id = registerElement(element);
-        autoInvElements.add(id);
+        autoInvElements.set(id);
+        hotbarPlan = null;
         return id;
     }
 
@@ -96,16 +215,16 @@ public class ElementRegistry extends StateContainer {
      * @param elementID ElementID to register with auto-inv delivery enabled
      */
     public void registerAutoElement(int elementID){
-        if(!elements.containsKey(elementID)){
+        if(!elementExists(elementID)){
             throw new RuntimeException("Cannot register element as auto: Element id \"" + elementID + "\" is not registered.");
         }
-        if(autoInvElements.contains(elementID)) return;
-        autoInvElements.add(elementID);
+        autoInvElements.set(elementID);
+        hotbarPlan = null;
     }
 
     /**
      * Registers an element at a given fixed slot position.<br><br>
-     * <b>WARNING: Adding anything to a fixed slot ID will result in the removal of all user items on their spawn.</b><br>
+     * <b>WARNING: Adding anything to a fixed slot ID will result in the removal of user items in that slot on their spawn.</b><br>
      * <i>Please make use of this method configurable in your plugin, with it being disabled by default. Thanks!</i>
      *
      * @param slotID SlotID to associate element with
@@ -114,27 +233,61 @@ public class ElementRegistry extends StateContainer {
      */
     public int registerAutoElement(int slotID, Element element){
         int id = registerElement(element);
-        autoInvLocations.put(slotID,id);
-        autoInvElements.add(id);
+        bindSlot(slotID, id);
+        autoInvElements.set(id);
+        hotbarPlan = null;
         return id;
     }
 
     /**
      * Associates an existing element to a given fixed slot position.<br><br>
-     * <b>WARNING: Adding anything to a fixed slot ID will result in the removal of all user items on their spawn.</b><br>
+     * <b>WARNING: Adding anything to a fixed slot ID will result in the removal of user items in that slot on their spawn.</b><br>
      * <i>Please make use of this method configurable in your plugin, with it being disabled by default. Thanks!</i>
      *
      * @param slotID SlotID to associate element with
      * @param elementID ElementID to bind to slot.
      */
     public void registerAutoElement(int slotID, int elementID){
-        if(!elements.containsKey(elementID)){
+        if(!elementExists(elementID)){
             throw new RuntimeException("Cannot register element as auto: Element id \"" + elementID + "\" is not registered.");
         }
-        autoInvLocations.put(slotID,elementID);
+        bindSlot(slotID, elementID);
+        autoInvElements.set(elementID);
+        hotbarPlan = null;
+    }
 
-        if(!autoInvElements.contains(elementID))
-            autoInvElements.add(elementID);
+    /**
+     * Binds a slot to an element, keeping the reverse index in sync.
+     * Whatever element held the slot before loses it.
+     *
+     * @param slotID slot to bind
+     * @param elementID element to put in the slot
+     */
+    private void bindSlot(int slotID, int elementID){
+        if(slotID < 0){
+            throw new RuntimeException("Cannot register element as auto: Slot id \"" + slotID + "\" is invalid.");
+        }
+        if(slotID >= autoInvLocations.length){
+            int oldLength = autoInvLocations.length;
+            autoInvLocations = Arrays.copyOf(autoInvLocations, slotID + 1);
+            Arrays.fill(autoInvLocations, oldLength, autoInvLocations.length, -1);
+        }
+        int previous = autoInvLocations[slotID];
+        if(previous == elementID) return;
+        if(previous != -1){
+            elementSlots[previous].clear(slotID);
+            if(elementSlots[previous].isEmpty()){
+                elementSlots[previous] = null;
+                fixedAutoElements.clear(previous);
+            }
+        }
+        autoInvLocations[slotID] = elementID;
+        hotbarPlan = null;
+        if(elementSlots[elementID] == null){
+            elementSlots[elementID] = new BitSet();
+        }
+        elementSlots[elementID].set(slotID);
+        fixedAutoElements.set(elementID);
     }
 
     /**
@@ -143,20 +296,136 @@ public class ElementRegistry extends StateContainer {
      */
     public HashMap<Integer,ItemStack> getAutoItems() {
         HashMap<Integer,ItemStack> stacks = new HashMap<>();
-        for(int i : autoInvElements){
+        for(int i = autoInvElements.nextSetBit(0); i >= 0; i = autoInvElements.nextSetBit(i + 1)){
             stacks.put(i,getItemStackForElement(i));
         }
         return stacks;
     }
 
+    /**
+     * Deliver all auto elements to a player.<br>
+     * Only slots whose contents differ from the hotbar plan are written: fixed slots already holding
+     * their element and floating elements the player still carries are left alone, unless the element was
+     * re-registered or invalidated since, and stray copies of registered elements are removed.<br>
+     * Items still carrying the tag of older versions of HuskyUI are replaced with freshly tagged ones or removed,
+     * as they are no longer recognized anywhere else.
+     *
+     * @param player Player to deliver auto elements to
+     */
+    public void applyAutoItems(Player player){
+        if(hotbarPlan == null){
+            buildHotbarPlan();
+        }
+        ItemStackSnapshot[] plan = hotbarPlan;
+        BitSet carried = new BitSet();
+        int slotNum = 0;
+        for (Inventory slot : player.getInventory().slots()) {
+            ItemStackSnapshot planned = slotNum < plan.length ? plan[slotNum] : null;
+            Optional<ItemStack> current = slot.peek();
+            int currentID = -1;
+            if(current.isPresent()){
+                currentID = findElementID(current.get());
+                if(currentID == -1){
+                    // Migrated here once, so event listeners never serialize stacks.
+                    currentID = getLegacyElementIDFromItemStack(current.get()).orElse(-1);
+                }
+            }
+            if(planned != null){
+                if(currentID != autoInvLocations[slotNum] || !isUpToDate(current.get(), planned)){
+                    slot.set(planned.createStack());
+                }
+            }else if(currentID != -1){
+                if(elementExists(currentID) && autoInvElements.get(currentID) && !fixedAutoElements.get(currentID) && !carried.get(currentID)){
+                    if(!isUpToDate(current.get(), snapshots[currentID])){
+                        slot.set(snapshots[currentID].createStack());
+                    }
+                    carried.set(currentID);
+                }else{
+                    slot.clear();
+                }
+            }
+            slotNum++;
+        }
+        for(int elementID : floatingAutoElements){
+            if(!carried.get(elementID)){
+                player.getInventory().offer(snapshots[elementID].createStack());
+            }
+        }
+    }
+
+    /**
+     * Check that an item holding an element still matches its cached snapshot.<br>
+     * Only called once the element id already matches, so items left over from before
+     * {@link #reregisterElement(int, Element)} or {@link #invalidateElement(int)} get replaced.
+     *
+     * @param current item in the slot
+     * @param planned snapshot the slot should hold
+     * @return if the item does not need to be replaced
+     */
+    private static boolean isUpToDate(ItemStack current, ItemStackSnapshot planned){
+        return planned.createStack().equalTo(current);
+    }
+
+    private void buildHotbarPlan(){
+        ItemStackSnapshot[] plan = new ItemStackSnapshot[autoInvLocations.length];
+        for(int slot = 0; slot < autoInvLocations.length; slot++){
+            if(autoInvLocations[slot] != -1){
+                plan[slot] = snapshots[autoInvLocations[slot]];
+            }
+        }
+        BitSet floating = (BitSet) autoInvElements.clone();
+        floating.andNot(fixedAutoElements);
+        floatingAutoElements = floating.stream().toArray();
+        hotbarPlan = plan;
+    }
+
     /**
      * Get all fixed locations of auto items.<br>
-     * If this hashmap is empty, inventories are NOT reset on login.
+     * If this hashmap is empty, inventories are NOT reset on login.<br>
+     * The map is a copy, changing it will not affect the registry.
      *
      * @return HashMap containing SlotIDs to ElementIDs
      */
     public HashMap<Integer,Integer> getAutoItemLocations() {
-        return autoInvLocations;
+        HashMap<Integer,Integer> locations = new HashMap<>();
+        for(int slot = 0; slot < autoInvLocations.length; slot++){
+            if(autoInvLocations[slot] != -1){
+                locations.put(slot, autoInvLocations[slot]);
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Check if any auto element is bound to a fixed slot.<br>
+     * If not, inventories are NOT reset on login.
+     *
+     * @return if there are fixed auto elements
+     */
+    public boolean hasFixedAutoElements() {
+        return !fixedAutoElements.isEmpty();
+    }
+
+    /**
+     * Get the element bound to a fixed slot.
+     *
+     * @param slotID slot to check
+     * @return ElementID bound to the slot, or -1 if the slot is not fixed.
+     */
+    public int getFixedElementAt(int slotID) {
+        if(slotID < 0 || slotID >= autoInvLocations.length) return -1;
+        return autoInvLocations[slotID];
+    }
+
+    /**
+     * Check if an element is bound to a given fixed slot.
+     *
+     * @param id element id
+     * @param slotID slot to check
+     * @return if the element is fixed at that slot
+     */
+    public boolean isElementFixedAt(int id, int slotID) {
+        return getFixedElementAt(slotID) == id;
     }
 
     /**
@@ -166,30 +435,144 @@ public class ElementRegistry extends StateContainer {
      * @return Element, if it exists with that item.
      */
     public Optional<Element> getElementFromItemStack(ItemStack stack){
-        Optional<Integer> optID = getElementIDFromItemStack(stack);
+        return getElementFromID(getElementIDFromItemStack(stack));
+    }
+
+    /**
+     * Convert an ItemStackSnapshot into an Element
+     *
+     * @param snapshot ItemStackSnapshot to pull Element from
+     * @return Element, if it exists with that item.
+     */
+    public Optional<Element> getElementFromItemStack(ItemStackSnapshot snapshot){
+        return getElementFromID(getElementIDFromItemStack(snapshot));
+    }
+
+    private Optional<Element> getElementFromID(Optional<Integer> optID){
         if(optID.isPresent()){
-            if(elements.containsKey(optID.get())){
-                return Optional.of(elements.get(optID.get()));
+            if(elementExists(optID.get())){
+                return Optional.of(elements[optID.get()]);
             }
         }
         return Optional.empty();
     }
 
     /**
-     * Convert an ItemStack into an ElementID
+     * Convert an ItemStack into an ElementID<br>
+     * Only the element tag is read, the stack is never serialized.
      *
      * @param stack ItemStack to pull ElementID from
      * @return ElementID, if it exists. This ID may not actually be associated with an Element, so please verify that before use with {@link #elementExists(int)}.
      */
     public Optional<Integer> getElementIDFromItemStack(ItemStack stack){
-        if(stack.getType() == ItemTypes.AIR || stack.getType() == ItemTypes.NONE) return Optional.empty();
-        Optional<Object> optRegID = stack.toContainer().get(DataQuery.of("UnsafeData", "regid"));
+        int id = findElementID(stack);
+        return id == -1 ? Optional.empty() : Optional.of(id);
+    }
+
+    /**
+     * Convert an ItemStackSnapshot into an ElementID<br>
+     * Only the element tag is read, so event snapshots never have to be turned into stacks.
+     *
+     * @param snapshot ItemStackSnapshot to pull ElementID from
+     * @return ElementID, if it exists. This ID may not actually be associated with an Element, so please verify that before use with {@link #elementExists(int)}.
+     */
+    public Optional<Integer> getElementIDFromItemStack(ItemStackSnapshot snapshot){
+        int id = findElementID(snapshot);
+        return id == -1 ? Optional.empty() : Optional.of(id);
+    }
+
+    /**
+     * Convert an ItemStack into an ElementID without wrapping it in an Optional.<br>
+     * Items failing the ItemType pre-filter are rejected without reading anything, which is what most lookups do.
+     *
+     * @param stack ItemStack to pull ElementID from
+     * @return ElementID, or -1 if there is none. This ID may not actually be associated with an Element, so please verify that before use with {@link #elementExists(int)}.
+     */
+    public int findElementID(ItemStack stack){
+        if(!passesPrefilter(stack.getType())) return -1;
+        Integer id = stack.getOrNull(HuskyKeys.ELEMENT_ID);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Convert an ItemStackSnapshot into an ElementID without wrapping it in an Optional.<br>
+     * Items failing the ItemType pre-filter are rejected without reading anything, which is what most lookups do.
+     *
+     * @param snapshot ItemStackSnapshot to pull ElementID from
+     * @return ElementID, or -1 if there is none. This ID may not actually be associated with an Element, so please verify that before use with {@link #elementExists(int)}.
+     */
+    public int findElementID(ItemStackSnapshot snapshot){
+        if(!passesPrefilter(snapshot.getType())) return -1;
+        Integer id = snapshot.getOrNull(HuskyKeys.ELEMENT_ID);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Reads the ElementID that older versions of HuskyUI stored in <code>UnsafeData</code>.<br>
+     * This serializes the entire stack, so it is only used by {@link #applyAutoItems(Player)} to migrate such items.
+     *
+     * @param stack ItemStack to pull ElementID from
+     * @return ElementID, if the stack carries the legacy tag.
+     */
+    Optional<Integer> getLegacyElementIDFromItemStack(ItemStack stack){
+        if(isEmptyType(stack.getType()) || !elementTypes.containsKey(stack.getType())) return Optional.empty();
+        return getLegacyElementID(stack.toContainer());
+    }
+
+    private static Optional<Integer> getLegacyElementID(DataView container){
+        Optional<Object> optRegID = container.get(LEGACY_REGID);
         if(optRegID.isPresent()){
             return Optional.of((int)optRegID.get());
         }
         return Optional.empty();
     }
 
+    private static boolean isEmptyType(ItemType type){
+        return type == ItemTypes.AIR || type == ItemTypes.NONE;
+    }
+
+    /**
+     * Cheap check run before any element tag is read.
+     *
+     * @param type ItemType of the item being looked up
+     * @return if an element could be of this type
+     */
+    private boolean passesPrefilter(ItemType type){
+        if(!isEmptyType(type) && elementTypes.containsKey(type)){
+            prefilterHits++;
+            return true;
+        }
+        prefilterMisses++;
+        return false;
+    }
+
+    /**
+     * Get how many element lookups got past the ItemType pre-filter.<br>
+     * Not every hit is an element, it only shares its ItemType with one.
+     *
+     * @return pre-filter hit count
+     */
+    public long getPrefilterHits() {
+        return prefilterHits;
+    }
+
+    /**
+     * Get how many element lookups were rejected by the ItemType pre-filter without reading any tag.
+     *
+     * @return pre-filter miss count
+     */
+    public long getPrefilterMisses() {
+        return prefilterMisses;
+    }
+
+    /**
+     * Reset the pre-filter hit and miss counters.
+     */
+    public void resetPrefilterStats() {
+        prefilterHits = 0;
+        prefilterMisses = 0;
+    }
+
     /**
      * Verify that an ElementID actually is registered to an Element
      *
@@ -197,7 +580,17 @@ public class ElementRegistry extends StateContainer {
      * @return If element exists under that id
      */
     public boolean elementExists(int id){
-        return elements.containsKey(id);
+        return id >= 0 && id < elementIncrement && elements[id] != null;
+    }
+
+    /**
+     * Get the element registered under an id.
+     *
+     * @param id ElementID to look up
+     * @return Element registered under that id, or null if there is none.
+     */
+    public Element getElement(int id){
+        return elementExists(id) ? elements[id] : null;
     }
 
     /**
@@ -207,8 +600,8 @@ public class ElementRegistry extends StateContainer {
      * @return if element is auto-inv
      */
     public boolean isElementAuto(int id){
-        if(!elements.containsKey(id)) throw new RuntimeException("Cannot check if element is auto: Element id \"" + id + "\" is not registered.");
-        return autoInvElements.contains(id);
+        if(!elementExists(id)) throw new RuntimeException("Cannot check if element is auto: Element id \"" + id + "\" is not registered.");
+        return autoInvElements.get(id);
     }
 
     /**
@@ -220,7 +613,7 @@ public class ElementRegistry extends StateContainer {
      */
     public boolean isElementFixedAuto(int id){
         if(!isElementAuto(id)) throw new RuntimeException("Cannot check if element is fixed auto: Element \"" + id + "\"is not auto.");
-        return autoInvLocations.values().contains(id);
+        return fixedAutoElements.get(id);
     }
 
     /**
@@ -230,13 +623,19 @@ public class ElementRegistry extends StateContainer {
      * @return ItemStack of given element.
      */
     public ItemStack getItemStackForElement(int elementID){
-        if(elements.containsKey(elementID)){
-            return ItemStack.builder()
-                    .fromContainer(elements.get(elementID)
-                            .getItem()
-                            .toContainer()
-                            .set(DataQuery.of("UnsafeData", "regid"), elementID))
-                    .build();
+        return getSnapshotForElement(elementID).createStack();
+    }
+
+    /**
+     * Get the cached, pre-tagged snapshot of any given element.<br>
+     * This is built once on registration, so it is the cheapest way to hand an element out.
+     *
+     * @param elementID ElementID to get a snapshot of.
+     * @return ItemStackSnapshot of given element.
+     */
+    public ItemStackSnapshot getSnapshotForElement(int elementID){
+        if(elementExists(elementID)){
+            return snapshots[elementID];
         }
         throw new RuntimeException("Cannot get ItemStack: Element id \"" + elementID + "\" is not registered.");
     }
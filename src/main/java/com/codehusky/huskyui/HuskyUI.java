@@ -17,32 +17,45 @@
 
 package com.codehusky.huskyui;
 
+import com.codehusky.huskyui.data.ElementIdData;
+import com.codehusky.huskyui.data.ElementIdDataBuilder;
+import com.codehusky.huskyui.data.HuskyKeys;
+import com.codehusky.huskyui.data.ImmutableElementIdData;
+import com.codehusky.huskyui.states.action.ActionContext;
+import com.codehusky.huskyui.states.action.runnable.AsyncRunnableAction;
 import com.codehusky.huskyui.states.element.ActionableElement;
 import com.codehusky.huskyui.states.element.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.DataRegistration;
+import org.spongepowered.api.data.key.Key;
 import org.spongepowered.api.entity.Entity;
 import org.spongepowered.api.entity.Item;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.Listener;
 import org.spongepowered.api.event.Order;
 import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.entity.MoveEntityEvent;
+import org.spongepowered.api.event.entity.living.humanoid.player.RespawnPlayerEvent;
+import org.spongepowered.api.event.game.GameRegistryEvent;
+import org.spongepowered.api.event.game.GameReloadEvent;
 import org.spongepowered.api.event.item.inventory.ClickInventoryEvent;
 import org.spongepowered.api.event.item.inventory.DropItemEvent;
 import org.spongepowered.api.event.item.inventory.InteractItemEvent;
 import org.spongepowered.api.event.item.inventory.UseItemStackEvent;
 import org.spongepowered.api.event.network.ClientConnectionEvent;
 import org.spongepowered.api.item.ItemTypes;
-import org.spongepowered.api.item.inventory.Inventory;
 import org.spongepowered.api.item.inventory.InventoryArchetypes;
 import org.spongepowered.api.item.inventory.ItemStack;
+import org.spongepowered.api.item.inventory.ItemStackSnapshot;
 import org.spongepowered.api.plugin.Plugin;
 import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.scheduler.SpongeExecutorService;
+import org.spongepowered.api.scheduler.Task;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
-import java.util.HashMap;
-import java.util.Optional;
 
 /**
  * The HuskyUI class that gets loaded by Sponge at runtime.
@@ -78,6 +91,26 @@ public class HuskyUI {
 
     private final ElementRegistry registry = new ElementRegistry();
 
+    /**
+     * Runs the updaters of every updatable Page.
+     */
+    private final UpdateScheduler updateScheduler = new UpdateScheduler();
+
+    /**
+     * Keeps track of what every player has open.
+     */
+    private final SessionRegistry sessionRegistry = new SessionRegistry();
+
+    /**
+     * Runs HuskyUI work off of the main thread.
+     */
+    private SpongeExecutorService asyncExecutor;
+
+    /**
+     * Hands work back to the main thread.
+     */
+    private SpongeExecutorService syncExecutor;
+
     /**
      * Contains a reference to this (soft) singleton class.
      */
@@ -145,6 +178,78 @@ public class HuskyUI {
         return registry;
     }
 
+    /**
+     * Gets the scheduler running the updaters of every updatable Page.
+     *
+     * @return HuskyUI's UpdateScheduler
+     */
+    @Nonnull
+    public UpdateScheduler getUpdateScheduler() {
+        return this.updateScheduler;
+    }
+
+    /**
+     * Gets the registry of what every player has open.
+     *
+     * @return HuskyUI's SessionRegistry
+     */
+    @Nonnull
+    public SessionRegistry getSessionRegistry() {
+        return this.sessionRegistry;
+    }
+
+    /**
+     * Gets the executor HuskyUI uses for work that must stay off the main thread.
+     *
+     * @return HuskyUI's async executor
+     */
+    @Nonnull
+    public SpongeExecutorService getAsyncExecutor() {
+        if (this.asyncExecutor == null) {
+            this.asyncExecutor = Sponge.getScheduler().createAsyncExecutor(this);
+        }
+        return this.asyncExecutor;
+    }
+
+    /**
+     * Gets the executor HuskyUI uses to get back onto the main thread.
+     *
+     * @return HuskyUI's sync executor
+     */
+    @Nonnull
+    public SpongeExecutorService getSyncExecutor() {
+        if (this.syncExecutor == null) {
+            this.syncExecutor = Sponge.getScheduler().createSyncExecutor(this);
+        }
+        return this.syncExecutor;
+    }
+
+    /**
+     * Registers the {@link org.spongepowered.api.data.key.Key}s HuskyUI uses to tag registered elements.
+     *
+     * @param event GameRegistryEvent.Register for Keys
+     */
+    @Listener
+    public void onKeyRegistration(GameRegistryEvent.Register<Key<?>> event){
+        event.register(HuskyKeys.ELEMENT_ID);
+    }
+
+    /**
+     * Registers the custom data HuskyUI uses to tag registered elements.
+     *
+     * @param event GameRegistryEvent.Register for DataRegistrations
+     */
+    @Listener
+    public void onDataRegistration(GameRegistryEvent.Register<DataRegistration<?, ?>> event){
+        DataRegistration.builder()
+                .dataClass(ElementIdData.class)
+                .immutableClass(ImmutableElementIdData.class)
+                .builder(new ElementIdDataBuilder())
+                .manipulatorId("element_id")
+                .dataName("HuskyUI Element ID")
+                .buildAndRegister(this.pluginContainer);
+    }
+
     /*@Listener
     public void serverStart(GameStartedServerEvent event){
         RunnableAction testAction = new RunnableAction(registry, ActionType.NONE,"");
@@ -323,40 +428,53 @@ public class HuskyUI {
      */
     @Listener
     public void onPlayerSpawn(ClientConnectionEvent.Join event){
-        HashMap<Integer, ItemStack> items = registry.getAutoItems();
-        HashMap<Integer, Integer> itemPositions = registry.getAutoItemLocations();
-        if(itemPositions.size() > 0) {
-            event.getTargetEntity().getInventory().clear();
-            int slotNum = 0;
-            for (Inventory slot : event.getTargetEntity().getInventory().slots()) {
-                if (itemPositions.containsKey(slotNum)) {
-                    slot.set(items.get(itemPositions.get(slotNum)));
-                }
-                slotNum++;
-            }
-            for(int elementID: items.keySet()){
-                if(!itemPositions.containsValue(elementID)){
-                    event.getTargetEntity().getInventory().offer(items.get(elementID));
-                }
-            }
-        }else{
-            int slotNum = 0;
-            for (Inventory slot : event.getTargetEntity().getInventory().slots()) {
-                if (slot.peek().isPresent()) {
-                    Optional<Integer> eleID = registry.getElementIDFromItemStack(slot.peek().get());
-                    if(eleID.isPresent()){
-                        slot.clear();
-                    }
-                }
-                slotNum++;
-            }
-            for(int elementID: items.keySet()){
-                if(!itemPositions.containsValue(elementID)){
-                    event.getTargetEntity().getInventory().offer(items.get(elementID));
-                }
-            }
-        }
+        registry.applyAutoItems(event.getTargetEntity());
+    }
+
+    /**
+     * Re-apply auto-items after a respawn, once the new player entity has its inventory.
+     *
+     * @param event RespawnPlayerEvent
+     */
+    @Listener
+    public void onPlayerRespawn(RespawnPlayerEvent event){
+        final Player player = event.getTargetEntity();
+        Task.builder().execute(() -> registry.applyAutoItems(player)).delayTicks(1).submit(this);
+    }
 
+    /**
+     * Re-apply auto-items when a player moves to another world.
+     *
+     * @param event MoveEntityEvent.Teleport
+     */
+    @Listener(order = Order.POST)
+    public void onWorldChange(MoveEntityEvent.Teleport event){
+        if(!(event.getTargetEntity() instanceof Player)) return;
+        if(event.getFromTransform().getExtent().getUniqueId().equals(event.getToTransform().getExtent().getUniqueId())) return;
+        final Player player = (Player) event.getTargetEntity();
+        Task.builder().execute(() -> registry.applyAutoItems(player)).delayTicks(1).submit(this);
+    }
+
+    /**
+     * Close every HuskyUI window, since the GUIs behind them may be replaced.
+     *
+     * @param event GameReloadEvent
+     */
+    @Listener
+    public void onReload(GameReloadEvent event){
+        sessionRegistry.closeAll();
+    }
+
+    /**
+     * Stop the updaters of any Page the player still had open.
+     *
+     * @param event ClientConnectionEvent Disconnect
+     */
+    @Listener
+    public void onPlayerDisconnect(ClientConnectionEvent.Disconnect event){
+        updateScheduler.cancelAll(event.getTargetEntity().getUniqueId());
+        sessionRegistry.remove(event.getTargetEntity().getUniqueId());
+        AsyncRunnableAction.release(event.getTargetEntity().getUniqueId());
     }
 
     /**
@@ -366,13 +484,11 @@ public class HuskyUI {
      */
     @Listener(order= Order.LAST)
     public void onElementInteract(InteractItemEvent event){
-        Optional<Element> ele = registry.getElementFromItemStack(event.getItemStack().createStack());
-        if(ele.isPresent()){
+        Element ele = registry.getElement(registry.findElementID(event.getItemStack()));
+        if(ele != null){
             if(event instanceof InteractItemEvent.Secondary) {
-                if (ele.get() instanceof ActionableElement) {
-                    ActionableElement aElement = ((ActionableElement) ele.get()).copy(registry);
-                    aElement.getAction().setObserver((Player) event.getCause().root());
-                    aElement.getAction().runAction("",null);
+                if (ele instanceof ActionableElement) {
+                    ((ActionableElement) ele).getAction().runAction(new ActionContext((Player) event.getCause().root(), "", null));
                 }
             }
 
@@ -389,13 +505,10 @@ public class HuskyUI {
     public void onItemDrop(DropItemEvent.Dispense event){
         for(Entity e :event.getEntities()){
             if(e instanceof Item){
-                ItemStack affectedStack = ((Item) e).getItemData().item().get().createStack();
-                Optional<Integer> potentialID = registry.getElementIDFromItemStack(affectedStack);
-                if(potentialID.isPresent()){
-                    if(registry.elementExists(potentialID.get())){
-                        event.setCancelled(true); //NOTHING should drop a registered item. >:(
-                        //TODO: handle https://github.com/SpongePowered/SpongeCommon/issues/1678 properly w/ workaround
-                    }
+                ItemStackSnapshot affectedStack = ((Item) e).getItemData().item().get();
+                if(registry.elementExists(registry.findElementID(affectedStack))){
+                    event.setCancelled(true); //NOTHING should drop a registered item. >:(
+                    //TODO: handle https://github.com/SpongePowered/SpongeCommon/issues/1678 properly w/ workaround
                 }
             }
         }
@@ -407,11 +520,8 @@ public class HuskyUI {
      */
     @Listener
     public void onItemUse(UseItemStackEvent.Start event){
-        Optional<Integer> potentialID = registry.getElementIDFromItemStack(event.getItemStackInUse().createStack());
-        if(potentialID.isPresent()){
-            if(registry.elementExists(potentialID.get())){
-                event.setCancelled(true);
-            }
+        if(registry.elementExists(registry.findElementID(event.getItemStackInUse()))){
+            event.setCancelled(true);
         }
     }
 
@@ -427,17 +537,17 @@ public class HuskyUI {
                     event instanceof ClickInventoryEvent.Shift ||
                     event instanceof ClickInventoryEvent.Creative) {
 
-                ItemStack affected;
-                affected = event.getTransactions().get(0).getOriginal().createStack();
+                ItemStackSnapshot affected;
+                affected = event.getTransactions().get(0).getOriginal();
                 if (event instanceof ClickInventoryEvent.Shift && (affected.getType() == ItemTypes.AIR || affected.getType() == ItemTypes.NONE)) {
-                    affected = event.getTransactions().get(0).getDefault().createStack();
+                    affected = event.getTransactions().get(0).getDefault();
                 }
-                Optional<Integer> potentialID = registry.getElementIDFromItemStack(affected);
-                if (potentialID.isPresent()) {
-                    if (registry.elementExists(potentialID.get())) {
-                        if (registry.isElementAuto(potentialID.get())) {
+                final int id = registry.findElementID(affected);
+                if (id != -1) {
+                    if (registry.elementExists(id)) {
+                        if (registry.isElementAuto(id)) {
                             if (event.getTransactions().get(0).getSlot().parent().getArchetype().equals(InventoryArchetypes.PLAYER)) {
-                                if (registry.isElementFixedAuto(potentialID.get())) {
+                                if (registry.isElementFixedAuto(id)) {
                                     event.setCancelled(true);
                                 }
                             } else {
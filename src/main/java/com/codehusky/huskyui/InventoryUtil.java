@@ -1,20 +1,122 @@
 package com.codehusky.huskyui;
 
+import com.google.common.collect.Maps;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.item.inventory.Inventory;
 import org.spongepowered.api.scheduler.Task;
 
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Opens and closes inventories on the next tick.
+ *
+ * <p>Requests are queued per player and only the last one made for a
+ * player during a tick is carried out, so chained navigations (such as
+ * a close followed by an open) result in a single inventory change.
+ * The whole queue is flushed by one task.</p>
+ *
+ * <p>What is opened can be built when the queue is flushed, with
+ * {@link #open(Player, Supplier)}, so that only the request that is
+ * carried out builds anything.</p>
+ */
 public class InventoryUtil {
+
+    /**
+     * The last request of every player, sorted by their unique ID.
+     */
+    private static final Map<UUID, Request> pending = Maps.newLinkedHashMap();
+
+    /**
+     * Whether or not the task flushing the queue has been submitted.
+     */
+    private static boolean flushScheduled = false;
+
+    /**
+     * Closes the inventory a player has open, on the next tick.
+     *
+     * @param player the Player to close the inventory of
+     */
     public static void close(Player player) {
-        Task.builder().execute(()->
-            player.closeInventory()
-        ).delayTicks(1).submit(HuskyUI.getInstance());
+        queue(player, null);
     }
 
+    /**
+     * Opens an inventory for a player, on the next tick.
+     *
+     * @param player the Player to open the inventory for
+     * @param inventory the Inventory to open
+     */
     public static void open(Player player, Inventory inventory) {
-        Task.builder().execute(()-> {
-            player.openInventory(inventory);
-        }).delayTicks(1).submit(HuskyUI.getInstance());
+        queue(player, () -> inventory);
+    }
+
+    /**
+     * Opens an inventory for a player, on the next tick, building it
+     * only then. If another request for the player replaces this one
+     * before that, the inventory is never built.
+     *
+     * @param player the Player to open the inventory for
+     * @param opener builds the Inventory to open; may return null to open nothing
+     */
+    public static void open(Player player, Supplier<Inventory> opener) {
+        queue(player, opener);
+    }
+
+    /**
+     * Gets the number of players with a pending request.
+     *
+     * @return the number of queued requests
+     */
+    public static int getPendingCount() {
+        return pending.size();
     }
 
+    private static void queue(Player player, @Nullable Supplier<Inventory> opener) {
+        pending.put(player.getUniqueId(), new Request(player, opener));
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Task.builder().execute(InventoryUtil::flush).delayTicks(1).submit(HuskyUI.getInstance());
+        }
+    }
+
+    private static void flush() {
+        flushScheduled = false;
+        final Request[] requests = pending.values().toArray(new Request[0]);
+        pending.clear(); // requests made while opening are left for the next tick
+        for (final Request request : requests) {
+            if (!request.player.isOnline()) {
+                continue;
+            }
+            if (request.opener == null) {
+                request.player.closeInventory();
+                continue;
+            }
+            try {
+                final Inventory inventory = request.opener.get();
+                if (inventory != null) {
+                    request.player.openInventory(inventory);
+                }
+            } catch (Exception e) {
+                HuskyUI.getLogger().error("Error occurred while opening a HuskyUI inventory.", e);
+            }
+        }
+    }
+
+    private static final class Request {
+
+        private final Player player;
+
+        /**
+         * Builds the inventory to open, or null to close the open one.
+         */
+        @Nullable private final Supplier<Inventory> opener;
+
+        private Request(Player player, @Nullable Supplier<Inventory> opener) {
+            this.player = player;
+            this.opener = opener;
+        }
+    }
 }
@@ -0,0 +1,426 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import com.codehusky.huskyui.states.BindingContext;
+import com.codehusky.huskyui.states.Page;
+import com.codehusky.huskyui.states.element.Element;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.spongepowered.api.item.inventory.Inventory;
+import org.spongepowered.api.item.inventory.ItemStackSnapshot;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * What a single player currently has open in HuskyUI, and the
+ * views they came through to get there.
+ */
+public final class PlayerSession {
+
+    /**
+     * A {@link Page} view that was shown to the player, along with
+     * the inventory it was rendered into.
+     */
+    public static final class View {
+
+        @Nonnull private final StateContainer container;
+        @Nonnull private final StateRef ref;
+        @Nonnull private final Page page;
+        @Nonnull private final Inventory inventory;
+
+        View(@Nonnull final StateContainer container, @Nonnull final StateRef ref,
+             @Nonnull final Page page, @Nonnull final Inventory inventory) {
+            this.container = container;
+            this.ref = ref;
+            this.page = page;
+            this.inventory = inventory;
+        }
+
+        /**
+         * Gets the {@link StateContainer} the view was opened from.
+         *
+         * @return the StateContainer of the view
+         */
+        @Nonnull
+        public StateContainer getContainer() {
+            return this.container;
+        }
+
+        /**
+         * Gets the {@link StateRef} the view was opened through.
+         *
+         * @return the StateRef of the view
+         */
+        @Nonnull
+        public StateRef getRef() {
+            return this.ref;
+        }
+
+        /**
+         * Gets the {@link Page} view itself.
+         *
+         * @return the Page view
+         */
+        @Nonnull
+        public Page getPage() {
+            return this.page;
+        }
+
+        /**
+         * Gets the inventory the view was rendered into.
+         *
+         * @return the rendered Inventory
+         */
+        @Nonnull
+        public Inventory getInventory() {
+            return this.inventory;
+        }
+    }
+
+    /**
+     * A page compiled ahead of time, before the player turned to it.
+     */
+    public static final class PrefetchedPage {
+
+        @Nonnull private final ItemStackSnapshot[] plan;
+        @Nonnull private final Map<Integer, Element> elements;
+        private final long tick;
+
+        /**
+         * Constructs a PrefetchedPage.
+         *
+         * @param plan the pre-tagged contents of every slot
+         * @param elements the Elements shown on the page, sorted by their key
+         * @param tick the server tick the page was compiled on
+         */
+        public PrefetchedPage(@Nonnull final ItemStackSnapshot[] plan, @Nonnull final Map<Integer, Element> elements,
+                              final long tick) {
+            this.plan = plan;
+            this.elements = elements;
+            this.tick = tick;
+        }
+
+        /**
+         * Gets the compiled contents of the page.
+         *
+         * @return the pre-tagged contents of every slot
+         */
+        @Nonnull
+        public ItemStackSnapshot[] getPlan() {
+            return this.plan;
+        }
+
+        /**
+         * Gets the {@link Element}s shown on the page, sorted by their key.
+         *
+         * @return the Elements of the page
+         */
+        @Nonnull
+        public Map<Integer, Element> getElements() {
+            return this.elements;
+        }
+
+        /**
+         * Gets the server tick the page was compiled on.
+         *
+         * @return the tick the page was prefetched on
+         */
+        public long getTick() {
+            return this.tick;
+        }
+    }
+
+    /**
+     * Identifies a page of a {@link Page} definition.
+     */
+    private static final class PageKey {
+
+        @Nonnull private final Page definition;
+        private final int page;
+
+        private PageKey(@Nonnull final Page definition, final int page) {
+            this.definition = definition;
+            this.page = page;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof PageKey)) {
+                return false;
+            }
+            final PageKey other = (PageKey) o;
+            return this.definition == other.definition && this.page == other.page;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(this.definition), this.page);
+        }
+    }
+
+    /**
+     * The unique ID of the player this session belongs to.
+     */
+    @Nonnull private final UUID owner;
+
+    /**
+     * The view the player currently has open, if any.
+     */
+    @Nullable private View current;
+
+    /**
+     * The views the player came through, most recent first.
+     */
+    @Nonnull private final Deque<View> history;
+
+    /**
+     * The template container the player launched with a {@link BindingContext}, if any.
+     */
+    @Nullable private StateContainer boundContainer;
+
+    /**
+     * The values the player launched {@link #boundContainer} with.
+     */
+    @Nullable private BindingContext bindingContext;
+
+    /**
+     * Pages compiled ahead of time, oldest first.
+     */
+    @Nonnull private final Map<PageKey, PrefetchedPage> prefetched;
+
+    /**
+     * Constructs a PlayerSession. For use only by {@link SessionRegistry}.
+     *
+     * @param owner the unique ID of the player
+     */
+    PlayerSession(@Nonnull final UUID owner) {
+        this.owner = owner;
+        this.current = null;
+        this.history = Lists.newLinkedList();
+        this.prefetched = Maps.newLinkedHashMap();
+    }
+
+    /**
+     * Gets the unique ID of the player this session belongs to.
+     *
+     * @return the unique ID of the player
+     */
+    @Nonnull
+    public UUID getOwner() {
+        return this.owner;
+    }
+
+    /**
+     * Gets the view the player currently has open.
+     *
+     * @return the current View, or null if nothing is open
+     */
+    @Nullable
+    public View getCurrent() {
+        return this.current;
+    }
+
+    /**
+     * Gets the {@link StateContainer} the player currently has open.
+     *
+     * @return the active StateContainer, or null if nothing is open
+     */
+    @Nullable
+    public StateContainer getContainer() {
+        return (this.current == null) ? null : this.current.container;
+    }
+
+    /**
+     * Gets the {@link StateRef} of the State the player currently has open.
+     *
+     * @return the active StateRef, or null if nothing is open
+     */
+    @Nullable
+    public StateRef getStateRef() {
+        return (this.current == null) ? null : this.current.ref;
+    }
+
+    /**
+     * Gets the page number the player currently sees.
+     *
+     * @return the current page number; 0 if nothing is open
+     */
+    public int getPage() {
+        return (this.current == null) ? 0 : this.current.page.getCurrentPage();
+    }
+
+    /**
+     * Gets the values the player launched a template container with.
+     *
+     * @param container the StateContainer being opened
+     * @return the BindingContext, or null if the container wasn't launched with one
+     */
+    @Nullable
+    public BindingContext getBindingContext(@Nonnull final StateContainer container) {
+        return (container == this.boundContainer) ? this.bindingContext : null;
+    }
+
+    /**
+     * Sets the values the player launched a container with.
+     *
+     * @param container the StateContainer being launched
+     * @param bindingContext the BindingContext, or null if launched without one
+     */
+    void bind(@Nonnull final StateContainer container, @Nullable final BindingContext bindingContext) {
+        this.boundContainer = (bindingContext == null) ? null : container;
+        this.bindingContext = bindingContext;
+    }
+
+    /**
+     * Gets the views the player came through, most recent first.
+     *
+     * @return a copy of the navigation history
+     */
+    @Nonnull
+    public List<View> getHistory() {
+        return Lists.newArrayList(this.history);
+    }
+
+    /**
+     * Gets the number of pages compiled ahead of time for the player.
+     *
+     * @return the number of prefetched pages
+     */
+    public int getPrefetchedCount() {
+        return this.prefetched.size();
+    }
+
+    /**
+     * Keeps a page compiled ahead of time, dropping the oldest
+     * ones once there are more than allowed.
+     *
+     * @param definition the Page definition the page belongs to
+     * @param page the page number
+     * @param prefetched the compiled page
+     * @param limit the most pages to keep
+     */
+    void storePrefetched(@Nonnull final Page definition, final int page,
+                         @Nonnull final PrefetchedPage prefetched, final int limit) {
+        this.prefetched.put(new PageKey(definition, page), prefetched);
+        final Iterator<PageKey> oldest = this.prefetched.keySet().iterator();
+        while (this.prefetched.size() > limit && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Determines whether or not a page has been compiled ahead of time.
+     *
+     * @param definition the Page definition the page belongs to
+     * @param page the page number
+     * @param oldestTick the earliest tick a page may have been compiled on to still be used
+     * @return true if the page is prefetched and recent enough; false otherwise
+     */
+    boolean hasPrefetched(@Nonnull final Page definition, final int page, final long oldestTick) {
+        final PrefetchedPage prefetched = this.prefetched.get(new PageKey(definition, page));
+        return prefetched != null && prefetched.tick >= oldestTick;
+    }
+
+    /**
+     * Takes a page compiled ahead of time, so it is only used once.
+     *
+     * @param definition the Page definition the page belongs to
+     * @param page the page number
+     * @param oldestTick the earliest tick a page may have been compiled on to still be used
+     * @return the compiled page, or null if it isn't prefetched or too old
+     */
+    @Nullable
+    PrefetchedPage takePrefetched(@Nonnull final Page definition, final int page, final long oldestTick) {
+        final PrefetchedPage prefetched = this.prefetched.remove(new PageKey(definition, page));
+        return (prefetched != null && prefetched.tick >= oldestTick) ? prefetched : null;
+    }
+
+    /**
+     * Makes a view the current one, moving the previous one onto the history.
+     *
+     * @param view the newly opened View
+     * @param historySize the most views to keep in the history
+     */
+    void push(@Nonnull final View view, final int historySize) {
+        if (this.current != null && this.current.page != view.page) {
+            this.history.addFirst(this.current);
+            while (this.history.size() > historySize) {
+                this.history.removeLast();
+            }
+        }
+        this.current = view;
+    }
+
+    /**
+     * Makes a view the current one without touching the history,
+     * such as when going back to it.
+     *
+     * @param view the reopened View
+     */
+    void restore(@Nonnull final View view) {
+        this.current = view;
+    }
+
+    /**
+     * Checks whether the most recent view in the history shows a given State.
+     *
+     * @param container the StateContainer the State belongs to
+     * @param id the ID of the State
+     * @return true if it does; false otherwise
+     */
+    boolean peekIf(@Nonnull final StateContainer container, @Nonnull final String id) {
+        final View last = this.history.peekFirst();
+        return last != null && last.container == container && last.ref.getId().equals(id);
+    }
+
+    /**
+     * Takes the most recent view off the history if it shows a given State.
+     *
+     * @param container the StateContainer the State belongs to
+     * @param id the ID of the State
+     * @return the View, or null if the most recent view shows something else
+     */
+    @Nullable
+    View popIf(@Nonnull final StateContainer container, @Nonnull final String id) {
+        return (this.peekIf(container, id)) ? this.history.removeFirst() : null;
+    }
+
+    /**
+     * Forgets the current view, if it is the one given.
+     *
+     * @param page the Page view that was closed
+     * @return true if it was the current view; false otherwise
+     */
+    boolean closed(@Nonnull final Page page) {
+        if (this.current == null || this.current.page != page) {
+            return false;
+        }
+        this.current = null;
+        this.history.clear();
+        return true;
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import com.codehusky.huskyui.states.BindingContext;
+import com.codehusky.huskyui.states.Page;
+import com.google.common.collect.Maps;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.item.inventory.Inventory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps a {@link PlayerSession} for every player with a HuskyUI
+ * window open, sorted by their unique ID.
+ *
+ * <p>Sessions remember the last few views a player came through,
+ * so going back reopens the inventory that was already built for
+ * the parent instead of rendering it again. They also hold pages
+ * compiled ahead of time, up to a limit per player.</p>
+ */
+public class SessionRegistry {
+
+    /**
+     * The number of views kept in each history unless changed.
+     */
+    private static final int DEFAULT_HISTORY_SIZE = 5;
+
+    /**
+     * The number of pages prefetched per player unless changed.
+     */
+    private static final int DEFAULT_PREFETCH_LIMIT = 2;
+
+    /**
+     * The most ticks a prefetched page is used for unless changed.
+     */
+    private static final int DEFAULT_PREFETCH_MAX_AGE = 100;
+
+    /**
+     * The session of every player with a window open.
+     */
+    @Nonnull private final Map<UUID, PlayerSession> sessions;
+
+    /**
+     * The most views kept in the history of each session.
+     */
+    private int historySize;
+
+    /**
+     * The most pages kept prefetched for each player.
+     */
+    private int prefetchLimit;
+
+    /**
+     * The most ticks a prefetched page is used for after it was compiled.
+     */
+    private int prefetchMaxAge;
+
+    /**
+     * Constructs a SessionRegistry. For use only by the HuskyUI main class.
+     */
+    SessionRegistry() {
+        this.sessions = Maps.newHashMap();
+        this.historySize = DEFAULT_HISTORY_SIZE;
+        this.prefetchLimit = DEFAULT_PREFETCH_LIMIT;
+        this.prefetchMaxAge = DEFAULT_PREFETCH_MAX_AGE;
+    }
+
+    /**
+     * Gets the session of a player.
+     *
+     * @param owner the unique ID of the player
+     * @return the PlayerSession, if the player has a window open
+     */
+    @Nonnull
+    public Optional<PlayerSession> getSession(@Nonnull final UUID owner) {
+        return Optional.ofNullable(this.sessions.get(owner));
+    }
+
+    /**
+     * Gets the number of players with a window open.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Gets the most views kept in the history of each session.
+     *
+     * @return the history size
+     */
+    public int getHistorySize() {
+        return this.historySize;
+    }
+
+    /**
+     * Sets the most views kept in the history of each session.
+     *
+     * @param historySize the history size; 0 disables reusing views
+     */
+    public void setHistorySize(final int historySize) {
+        if (historySize < 0) {
+            throw new IllegalArgumentException("History size cannot be negative.");
+        }
+        this.historySize = historySize;
+    }
+
+    /**
+     * Gets the most pages kept prefetched for each player.
+     *
+     * @return the prefetch limit
+     */
+    public int getPrefetchLimit() {
+        return this.prefetchLimit;
+    }
+
+    /**
+     * Sets the most pages kept prefetched for each player.
+     *
+     * @param prefetchLimit the prefetch limit; 0 disables prefetching
+     */
+    public void setPrefetchLimit(final int prefetchLimit) {
+        if (prefetchLimit < 0) {
+            throw new IllegalArgumentException("Prefetch limit cannot be negative.");
+        }
+        this.prefetchLimit = prefetchLimit;
+    }
+
+    /**
+     * Gets the most ticks a prefetched page is used for after it was compiled.
+     *
+     * @return the prefetch max age, in ticks
+     */
+    public int getPrefetchMaxAge() {
+        return this.prefetchMaxAge;
+    }
+
+    /**
+     * Sets the most ticks a prefetched page is used for after it was compiled.
+     * Older pages are fetched again, so their contents are never more than
+     * this out of date.
+     *
+     * @param prefetchMaxAge the prefetch max age, in ticks
+     */
+    public void setPrefetchMaxAge(final int prefetchMaxAge) {
+        if (prefetchMaxAge < 0) {
+            throw new IllegalArgumentException("Prefetch max age cannot be negative.");
+        }
+        this.prefetchMaxAge = prefetchMaxAge;
+    }
+
+    /**
+     * Determines whether or not a {@link Page} view is what a player currently has open.
+     *
+     * @param player the Player
+     * @param page the Page view
+     * @return true if the view is the current one of the player; false otherwise
+     */
+    public boolean isCurrent(@Nonnull final Player player, @Nonnull final Page page) {
+        final PlayerSession session = this.sessions.get(player.getUniqueId());
+        return session != null && session.getCurrent() != null && session.getCurrent().getPage() == page;
+    }
+
+    /**
+     * Determines whether or not a page has been compiled ahead of time for a player.
+     *
+     * @param player the Player
+     * @param definition the Page definition the page belongs to
+     * @param page the page number
+     * @return true if the page is prefetched and not too old; false otherwise
+     */
+    public boolean hasPrefetched(@Nonnull final Player player, @Nonnull final Page definition, final int page) {
+        final PlayerSession session = this.sessions.get(player.getUniqueId());
+        return session != null && session.hasPrefetched(definition, page, this.getOldestPrefetchTick());
+    }
+
+    /**
+     * Keeps a page compiled ahead of time for a player, within the prefetch limit.
+     * Does nothing if the player has no session.
+     *
+     * @param player the Player
+     * @param definition the Page definition the page belongs to
+     * @param page the page number
+     * @param prefetched the compiled page
+     */
+    public void storePrefetched(@Nonnull final Player player, @Nonnull final Page definition, final int page,
+                                @Nonnull final PlayerSession.PrefetchedPage prefetched) {
+        final PlayerSession session = this.sessions.get(player.getUniqueId());
+        if (session != null && this.prefetchLimit > 0) {
+            session.storePrefetched(definition, page, prefetched, this.prefetchLimit);
+        }
+    }
+
+    /**
+     * Takes a page compiled ahead of time for a player.
+     *
+     * @param player the Player
+     * @param definition the Page definition the page belongs to
+     * @param page the page number
+     * @return the compiled page, if it was prefetched and isn't too old
+     */
+    @Nonnull
+    public Optional<PlayerSession.PrefetchedPage> takePrefetched(@Nonnull final Player player,
+                                                                 @Nonnull final Page definition, final int page) {
+        final PlayerSession session = this.sessions.get(player.getUniqueId());
+        return (session == null) ? Optional.empty()
+                : Optional.ofNullable(session.takePrefetched(definition, page, this.getOldestPrefetchTick()));
+    }
+
+    /**
+     * Gets the current server tick, which prefetched pages are stamped with.
+     *
+     * @return the number of ticks the server has been running for
+     */
+    public long getCurrentTick() {
+        return Sponge.getServer().getRunningTimeTicks();
+    }
+
+    private long getOldestPrefetchTick() {
+        return this.getCurrentTick() - this.prefetchMaxAge;
+    }
+
+    /**
+     * Records the values a player launches a container with.
+     *
+     * @param player the Player launching the container
+     * @param container the StateContainer being launched
+     * @param bindingContext the BindingContext, or null if launched without one
+     */
+    void bind(@Nonnull final Player player, @Nonnull final StateContainer container,
+              @Nullable final BindingContext bindingContext) {
+        if (bindingContext == null) {
+            final PlayerSession session = this.sessions.get(player.getUniqueId());
+            if (session != null) {
+                session.bind(container, null);
+            }
+            return;
+        }
+        this.sessions.computeIfAbsent(player.getUniqueId(), PlayerSession::new).bind(container, bindingContext);
+    }
+
+    /**
+     * Gets the values a player launched a container with.
+     *
+     * @param player the Player opening the container
+     * @param container the StateContainer being opened
+     * @return the BindingContext, or null if the container wasn't launched with one
+     */
+    @Nullable
+    BindingContext getBindingContext(@Nonnull final Player player, @Nonnull final StateContainer container) {
+        final PlayerSession session = this.sessions.get(player.getUniqueId());
+        return (session == null) ? null : session.getBindingContext(container);
+    }
+
+    /**
+     * Records that a {@link Page} view was opened for a player.
+     *
+     * @param player the Player the view was opened for
+     * @param container the StateContainer the view was opened from
+     * @param ref the StateRef the view was opened through
+     * @param page the Page view
+     * @param inventory the Inventory the view was rendered into
+     */
+    void opened(@Nonnull final Player player, @Nonnull final StateContainer container, @Nonnull final StateRef ref,
+                @Nonnull final Page page, @Nonnull final Inventory inventory) {
+        this.sessions.computeIfAbsent(player.getUniqueId(), PlayerSession::new)
+                .push(new PlayerSession.View(container, ref, page, inventory), this.historySize);
+    }
+
+    /**
+     * Reopens the view a player came from, if it shows the given {@link com.codehusky.huskyui.states.State}.
+     *
+     * <p>Static views are reopened from the inventory they were left in, and
+     * resume whatever closing them stopped; updatable ones are rendered again
+     * by the same view, since closing them stopped their updater.</p>
+     *
+     * <p>The view is only taken off the history once the inventory is
+     * actually opened, on the next tick; if it is gone by then, the State
+     * is opened anew instead.</p>
+     *
+     * @param player the Player going back
+     * @param container the StateContainer the State belongs to
+     * @param id the ID of the State to go back to
+     * @return true if a cached view was reopened; false if the State has to be opened anew
+     */
+    public boolean openBack(@Nonnull final Player player, @Nonnull final StateContainer container, @Nonnull final String id) {
+        final PlayerSession session = this.sessions.get(player.getUniqueId());
+        if (session == null) {
+            return false;
+        }
+        if (!session.peekIf(container, id)) {
+            return false;
+        }
+        InventoryUtil.open(player, () -> {
+            final PlayerSession.View view = session.popIf(container, id);
+            if (view == null) {
+                return container.showState(player, container.getRef(id));
+            }
+            final Page page = view.getPage();
+            final Inventory inventory = (page.isUpdatable()) ? page.getPageView(page.getCurrentPage()) : view.getInventory();
+            session.restore(new PlayerSession.View(view.getContainer(), view.getRef(), page, inventory));
+            if (!page.isUpdatable()) {
+                page.resume();
+            }
+            return inventory;
+        });
+        return true;
+    }
+
+    /**
+     * Records that a {@link Page} view was closed. If it was the view
+     * the player had open, rather than one being navigated away from,
+     * the session of the player ends.
+     *
+     * @param player the Player the view was shown to
+     * @param page the Page view that was closed
+     */
+    public void closed(@Nonnull final Player player, @Nonnull final Page page) {
+        final PlayerSession session = this.sessions.get(player.getUniqueId());
+        if (session != null && session.closed(page)) {
+            this.sessions.remove(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Ends the session of a player, such as when they disconnect.
+     *
+     * @param owner the unique ID of the player
+     */
+    public void remove(@Nonnull final UUID owner) {
+        this.sessions.remove(owner);
+    }
+
+    /**
+     * Closes every HuskyUI window and ends every session, such as on
+     * reload.
+     *
+     * <p>Only used on reload, where every open window has to be closed
+     * one by one anyway, so this visits each session once; players
+     * without a HuskyUI window open are never visited.</p>
+     */
+    public void closeAll() {
+        final PlayerSession[] open = this.sessions.values().toArray(new PlayerSession[0]);
+        this.sessions.clear();
+        for (final PlayerSession session : open) {
+            Sponge.getServer().getPlayer(session.getOwner()).ifPresent(Player::closeInventory);
+        }
+    }
+}
@@ -17,9 +17,16 @@
 
 package com.codehusky.huskyui;
 
+import com.codehusky.huskyui.states.BindingContext;
 import com.codehusky.huskyui.states.Page;
 import com.codehusky.huskyui.states.State;
+import com.codehusky.huskyui.states.action.Action;
+import com.codehusky.huskyui.states.action.ActionType;
+import com.codehusky.huskyui.states.element.ActionableElement;
+import com.codehusky.huskyui.states.element.Element;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.item.inventory.Inventory;
 import org.spongepowered.api.text.Text;
@@ -27,13 +34,26 @@ import org.spongepowered.api.text.format.TextColors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * The StateContainer's purpose is to be the gateway for information
  * regarding any active GUI. It can also be easily copied, with the
  * purpose of assigning a separate container for each user accessing
  * the GUI, allowing extensible on a per-user basis.
+ *
+ * <p>Copies are copy-on-write: a copy shares every {@link State} with
+ * the container it was made from, and a State is only duplicated once
+ * it is handed out by {@link #getState(String)}, {@link #getStates()} or
+ * {@link #editState(String)} in either of them. Opening States doesn't
+ * hand them out, so a copy that is only opened never duplicates any.</p>
+ *
+ * <p>Once built, a container can be sealed with {@link #seal()}, which
+ * validates it, resolves every reference and compiles every Page ahead
+ * of time, then freezes it so it can be shared by every player.</p>
  */
 public class StateContainer {
 
@@ -41,7 +61,38 @@ public class StateContainer {
      * Contains the {@link State}s in use by this container, sorted
      * by that State's ID.
      */
-    @Nonnull private final Map<String, State> states;
+    @Nonnull private Map<String, State> states;
+
+    /**
+     * Whether or not {@link #states} belongs to this container alone.
+     */
+    private boolean ownsStates;
+
+    /**
+     * The IDs of the {@link State}s that belong to this container alone,
+     * as opposed to being shared with copies of it.
+     */
+    @Nonnull private final Set<String> ownedStates;
+
+    /**
+     * The {@link StateRef}s handed out by this container, sorted by
+     * the ID of the State they reference.
+     */
+    @Nonnull private final Map<String, StateRef> refs;
+
+    /**
+     * The resolved parent of every {@link State} that has one,
+     * sorted by the ID of the State.
+     *
+     * <p>Kept here rather than on the States, since those may be
+     * shared with other containers.</p>
+     */
+    @Nonnull private final Map<String, StateRef> parentRefs;
+
+    /**
+     * The resolved goal of every NORMAL {@link Action} in this container.
+     */
+    @Nonnull private final Map<Action, StateRef> goalRefs;
 
     /**
      * References the ID of the {@link State} which has been
@@ -52,6 +103,17 @@ public class StateContainer {
      */
     @Nullable private String initialState;
 
+    /**
+     * Whether or not parents and goals have been resolved
+     * since the last State was added.
+     */
+    private boolean resolved;
+
+    /**
+     * Whether or not this container has been frozen by {@link #seal()}.
+     */
+    private volatile boolean sealed;
+
     /**
      * A StateContainer constructor. Left empty to pass equally
      * empty data to the other constructor.
@@ -67,8 +129,7 @@ public class StateContainer {
      * @param states the current States for this GUI
      */
     public StateContainer(@Nonnull final Map<String, State> states) {
-        this.states = states;
-        this.initialState = null;
+        this(states, null);
     }
 
     /**
@@ -80,31 +141,314 @@ public class StateContainer {
      * @param states the current States for this GUI
      * @param initialState the initial State
      */
-    public StateContainer(@Nonnull final Map<String, State> states, @Nonnull final String initialState) {
+    public StateContainer(@Nonnull final Map<String, State> states, @Nullable final String initialState) {
         this.states = states;
+        this.ownsStates = true;
+        this.ownedStates = Sets.newHashSet(states.keySet());
+        this.refs = Maps.newHashMap();
+        this.parentRefs = Maps.newHashMap();
+        this.goalRefs = Maps.newIdentityHashMap();
         this.initialState = initialState;
     }
 
     /**
      * Gets the current {@link State}s in use by this GUI.
      *
+     * <p>The map and every State in it belong to this container alone, so
+     * any State shared with a copy of this container is duplicated first.
+     * Sealed containers hand out their States as they are, in a map that
+     * cannot be changed.</p>
+     *
      * @return the current States in use by this GUI
      */
     @Nonnull
     public Map<String, State> getStates() {
+        if (this.sealed) {
+            return Collections.unmodifiableMap(this.states);
+        }
+        if (this.ownedStates.size() < this.states.size()) {
+            for (final String id : Lists.newArrayList(this.states.keySet())) {
+                this.ownState(id);
+            }
+        }
+        this.ensureOwnStates();
         return this.states;
     }
 
+    /**
+     * Gets a {@link State} of this GUI to be changed, duplicating
+     * it first if it is shared with a copy of this container.
+     *
+     * @param id the ID of the State being requested
+     * @return the State belonging to this container alone; null if non-existent
+     */
+    @Nullable
+    public State editState(@Nonnull final String id) {
+        this.checkNotSealed();
+        return this.ownState(id);
+    }
+
+    /**
+     * Gets a {@link State} of this GUI, duplicating it first
+     * if it is shared with a copy of this container.
+     *
+     * @param id the ID of the State
+     * @return the State belonging to this container alone; null if non-existent
+     */
+    @Nullable
+    private State ownState(@Nonnull final String id) {
+        final State state = this.states.get(id);
+        if (state == null || this.ownedStates.contains(id)) {
+            return state;
+        }
+        final State copy = state.copy(this);
+        this.ensureOwnStates();
+        this.states.put(id, copy);
+        this.ownedStates.add(id);
+        this.updateRef(id, copy);
+        this.resolved = false; // the copy has Actions of its own
+        return copy;
+    }
+
+    /**
+     * Gets the {@link StateRef} of a {@link State} of this GUI, on page 0.
+     *
+     * <p>The same StateRef is returned every time, and it keeps referencing
+     * whichever State this container holds under the ID, so it may be
+     * requested before the State is added. Sealed containers hand out
+     * a new, unresolved StateRef for IDs they don't hold.</p>
+     *
+     * @param id the ID of the State
+     * @return the StateRef of that ID
+     */
+    @Nonnull
+    public StateRef getRef(@Nonnull final String id) {
+        StateRef ref = this.refs.get(id);
+        if (ref == null && this.sealed) {
+            return new StateRef(this, id); // a sealed container is never changed
+        }
+        if (ref == null) {
+            ref = new StateRef(this, id);
+            ref.resolve(this.states.get(id));
+            this.refs.put(id, ref);
+        }
+        return ref;
+    }
+
+    /**
+     * Gets the {@link StateRef} described by an ID that may end in
+     * <code>#page</code>, such as <code>"shop#2"</code>.
+     *
+     * @param id the ID of the State, optionally followed by a page number
+     * @return the StateRef to that State and page
+     * @throws IllegalArgumentException if the page number is invalid
+     */
+    @Nonnull
+    public StateRef parseRef(@Nonnull final String id) {
+        final int split = id.indexOf('#');
+        if (split < 0) {
+            return this.getRef(id);
+        }
+        final int page;
+        try {
+            page = Integer.parseInt(id.substring(split + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page number in \"" + id + "\".", e);
+        }
+        return this.getRef(id.substring(0, split)).atPage(page);
+    }
+
+    /**
+     * Gets the parent of a {@link State}, as resolved by this container.
+     *
+     * @param state the State
+     * @return the StateRef of its parent, or null if not resolved
+     */
+    @Nullable
+    public StateRef getParentRef(@Nonnull final State state) {
+        final StateRef parent = this.parentRefs.get(state.getId());
+        // The parent may have been changed since it was resolved.
+        return (parent != null && parent.getId().equals(state.getParent())) ? parent : null;
+    }
+
+    /**
+     * Gets the goal of an {@link Action}, as resolved by this container.
+     *
+     * @param action the Action
+     * @return the StateRef of its goal, or null if not resolved
+     */
+    @Nullable
+    public StateRef getGoalRef(@Nonnull final Action action) {
+        return this.goalRefs.get(action);
+    }
+
+    /**
+     * Resolves the parent of every {@link State} and the goal of every
+     * {@link Action} in this GUI to a {@link StateRef}, so navigating
+     * between them needs no lookups by ID.
+     *
+     * <p>The StateRefs are kept by this container, so States and
+     * Actions shared with other containers are left untouched.</p>
+     *
+     * @throws IllegalStateException if a parent, goal or the initial State doesn't exist
+     */
+    public void validate() {
+        if (this.sealed) {
+            return; // validated when it was sealed, and can't have changed since
+        }
+        final List<String> errors = this.resolveReferences();
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid StateContainer: " + String.join("; ", errors));
+        }
+    }
+
+    /**
+     * Validates this container, resolves every reference in it, compiles
+     * every {@link Page} ahead of time and freezes it.
+     *
+     * <p>A sealed container can no longer have States added, removed or
+     * edited, and its Pages can no longer be changed; it is only read from
+     * when opened, so it can be shared by every player. Use {@link #copy()}
+     * to get a container that can be changed again.</p>
+     *
+     * <p>States this container still shares with a copy of it are
+     * duplicated first, so the copy is never frozen along with it.</p>
+     *
+     * @throws IllegalStateException if the container is invalid; it is left unsealed
+     */
+    public void seal() {
+        if (this.sealed) {
+            return;
+        }
+        // Sealing freezes the Pages themselves, so States still shared
+        // with a sibling container are copied first; they are resolved afterwards.
+        this.ensureOwnStates();
+        for (final String id : Lists.newArrayList(this.states.keySet())) {
+            this.ownState(id);
+            this.getRef(id);
+        }
+        this.validate();
+        for (final State state : this.states.values()) {
+            if (state instanceof Page) {
+                ((Page) state).seal();
+            }
+        }
+        this.sealed = true;
+    }
+
+    /**
+     * Determines whether or not this container has been frozen by {@link #seal()}.
+     *
+     * @return true if sealed; false otherwise
+     */
+    public boolean isSealed() {
+        return this.sealed;
+    }
+
+    private void checkNotSealed() {
+        if (this.sealed) {
+            throw new IllegalStateException("This StateContainer is sealed; copy it to make changes.");
+        }
+    }
+
+    /**
+     * Resolves every reference that can be resolved.
+     *
+     * @return a description of every reference that couldn't be
+     */
+    @Nonnull
+    private List<String> resolveReferences() {
+        final List<String> errors = Lists.newArrayList();
+        this.parentRefs.clear();
+        this.goalRefs.clear();
+        if (this.initialState != null && !this.states.containsKey(this.initialState)) {
+            errors.add("initial State \"" + this.initialState + "\" doesn't exist");
+        }
+        for (final State state : this.states.values()) {
+            if (state.hasParent()) {
+                final StateRef parent = this.getRef(state.getParent());
+                if (parent.isResolved()) {
+                    this.parentRefs.put(state.getId(), parent);
+                } else {
+                    errors.add("parent \"" + state.getParent() + "\" of \"" + state.getId() + "\" doesn't exist");
+                }
+            }
+            if (!(state instanceof Page)) {
+                continue;
+            }
+            for (final Element element : ((Page) state).getElementView().values()) {
+                if (!(element instanceof ActionableElement)) {
+                    continue;
+                }
+                final Action action = ((ActionableElement) element).getAction();
+                if (action.getType() != ActionType.NORMAL) {
+                    continue;
+                }
+                try {
+                    final StateRef goal = this.parseRef(action.getGoalState());
+                    if (goal.isResolved() && goal.getState() instanceof Page
+                            && isPastLastPage((Page) goal.getState(), goal.getPage())) {
+                        errors.add("goal \"" + action.getGoalState() + "\" of an Action in \"" + state.getId() + "\" is past the last page");
+                    } else if (goal.isResolved()) {
+                        this.goalRefs.put(action, goal);
+                    } else {
+                        errors.add("goal \"" + action.getGoalState() + "\" of an Action in \"" + state.getId() + "\" doesn't exist");
+                    }
+                } catch (IllegalArgumentException e) {
+                    errors.add(e.getMessage());
+                }
+            }
+        }
+        this.resolved = true;
+        return errors;
+    }
+
+    /**
+     * Determines whether or not a page number lies outside a {@link Page}.
+     * How many pages a {@link com.codehusky.huskyui.states.ElementSource}
+     * has can change at any time, and counting them may be expensive, so
+     * those are only bound below.
+     *
+     * @param page the Page
+     * @param pagenum the page number
+     * @return true if the page number can't be shown; false otherwise
+     */
+    private static boolean isPastLastPage(@Nonnull final Page page, final int pagenum) {
+        return pagenum < 0 || (page.getElementSource() == null && pagenum >= page.getPageCount());
+    }
+
+    private void updateRef(@Nonnull final String id, @Nullable final State state) {
+        final StateRef ref = this.refs.get(id);
+        if (ref != null) {
+            ref.resolve(state);
+        }
+    }
+
+    /**
+     * Determines whether or not a {@link State} is shared with
+     * copies of this container.
+     *
+     * @param id the ID of the State being determined
+     * @return true if the State exists and is shared; false otherwise
+     */
+    public boolean isStateShared(@Nonnull final String id) {
+        return this.states.containsKey(id) && !this.ownedStates.contains(id);
+    }
+
     /**
      * Gets a specific {@link State} in use by this GUI,
      * based on its ID.
      *
+     * <p>Like {@link #editState(String)}, the State is duplicated first
+     * if it is shared with a copy of this container, so changing it
+     * never changes that copy. Sealed containers hand it out as it is.</p>
+     *
      * @param id the ID of the State being requested
      * @return the State being requested; null if non-existent
      */
     @Nullable
     public State getState(@Nonnull final String id) {
-        return this.states.get(id);
+        return (this.sealed) ? this.states.get(id) : this.ownState(id);
     }
 
     /**
@@ -114,7 +458,7 @@ public class StateContainer {
      * @return true if the State exists, false otherwise
      */
     public boolean hasState(@Nonnull final String id) {
-        return this.getState(id) != null;
+        return this.states.containsKey(id);
     }
 
     /**
@@ -125,6 +469,7 @@ public class StateContainer {
      * @param state the State to be added
      */
     public void addState(@Nonnull final State state) {
+        this.checkNotSealed();
         state.setContainer(this);
 
         if (this.states.containsKey(state.getId())) {
@@ -134,7 +479,11 @@ public class StateContainer {
             this.initialState = state.getId();
         }
 
+        this.ensureOwnStates();
         this.states.put(state.getId(), state);
+        this.ownedStates.add(state.getId());
+        this.getRef(state.getId()).resolve(state);
+        this.resolved = false;
     }
 
     /**
@@ -143,11 +492,15 @@ public class StateContainer {
      * @param id the ID of the State to be removed
      */
     public void removeState(@Nonnull final String id) {
+        this.checkNotSealed();
         if (this.initialState != null && this.initialState.equals(id)) {
             this.initialState = null;
         }
 
+        this.ensureOwnStates();
         this.states.remove(id);
+        this.ownedStates.remove(id);
+        this.updateRef(id, null);
     }
 
     /**
@@ -169,6 +522,7 @@ public class StateContainer {
      * @param state the State to be displayed when the GUI is opened
      */
     public void setInitialState(@Nonnull final State state) {
+        this.checkNotSealed();
         this.initialState = state.getId();
 
         if (!this.states.containsKey(state.getId())) {
@@ -184,40 +538,67 @@ public class StateContainer {
      * @param id the ID of the State being requested
      */
     public void openState(@Nonnull final Player player, @Nonnull final String id) {
-        int pagenum = 0;
-        String pageID = id;
-        if(id.contains("#")){
-            try {
-                pagenum = Integer.valueOf(id.split("#")[1]);
-                pageID=id.split("#")[0];
-            }catch(Exception e){
-                fail(player, "Attempted to open an invalid pagenum!");
-            }
+        final StateRef ref;
+        try {
+            ref = this.parseRef(id);
+        } catch (IllegalArgumentException e) {
+            fail(player, "Attempted to open an invalid pagenum!");
+            fail(player, "Invalid ID: " + id);
+            InventoryUtil.close(player);
+            return;
         }
-        State state = this.states.get(pageID);
+        this.openState(player, ref);
+    }
+
+    /**
+     * Opens a {@link State} for a {@link Player} through its {@link StateRef},
+     * on the page the StateRef carries.
+     *
+     * @param player the Player to display the State to
+     * @param ref the StateRef of the State being requested
+     */
+    public void openState(@Nonnull final Player player, @Nonnull final StateRef ref) {
+        // StateRefs handed out by this container are used as they are; any other is re-resolved here.
+        final StateRef local = (ref.getContainer() == this) ? ref : this.getRef(ref.getId()).atPage(ref.getPage());
+        final State state = local.getState();
 
         if (state == null) {
             fail(player, "Attempted to open a nonexistent state!");
-            fail(player, "Invalid ID: " + id);
+            fail(player, "Invalid ID: " + local);
             InventoryUtil.close(player);
             return;
         }
-        state = state.copy(this);
-
-        state.setObserver(player);
-
         if (state instanceof Page) {
-            //InventoryUtil.close(player);
-            Page page = (Page) state;
-            Inventory toShow = page.getPageView(pagenum);
-            InventoryUtil.open(player, toShow);
-
+            // The view is built when the inventory is opened, so a request that is replaced builds nothing.
+            InventoryUtil.open(player, () -> this.showState(player, local));
             return;
         }
 
         InventoryUtil.close(player);
         fail(player, "Attempted to open an invalid or incomplete state!");
-        fail(player, "Invalid ID: " + id);
+        fail(player, "Invalid ID: " + local);
+    }
+
+    /**
+     * Builds the view of a {@link Page} for a {@link Player} and records
+     * it in their session. This is done by the task opening the inventory.
+     *
+     * @param player the Player to display the Page to
+     * @param ref the StateRef of the Page, handed out by this container
+     * @return the Inventory to open, or null if the StateRef is not a Page
+     */
+    @Nullable
+    Inventory showState(@Nonnull final Player player, @Nonnull final StateRef ref) {
+        final State state = ref.getState();
+        if (!(state instanceof Page)) {
+            return null;
+        }
+        // A view shares everything with the Page itself, instead of copying it.
+        final BindingContext context = HuskyUI.getInstance().getSessionRegistry().getBindingContext(player, this);
+        Page page = ((Page) state).createView(this, player, ref, context);
+        Inventory toShow = page.getPageView(ref.getPage());
+        HuskyUI.getInstance().getSessionRegistry().opened(player, this, ref, page, toShow);
+        return toShow;
     }
 
 
@@ -227,34 +608,72 @@ public class StateContainer {
      * @param player the Player to show the initial State to
      */
     public void launchFor(@Nonnull final Player player) {
+        this.launchFor(player, null);
+    }
+
+    /**
+     * Opens the initial {@link State} of a template container for the
+     * {@link Player}, resolving its bound {@link Element}s from a
+     * {@link BindingContext} as they are rendered.
+     *
+     * <p>The same container can be launched for every player; only
+     * the bound Elements differ between them. The BindingContext is
+     * kept for every State opened from this container until the
+     * player's window is closed.</p>
+     *
+     * @param player the Player to show the initial State to
+     * @param bindingContext the values bound Elements are resolved from, if any
+     */
+    public void launchFor(@Nonnull final Player player, @Nullable final BindingContext bindingContext) {
+        HuskyUI.getInstance().getSessionRegistry().bind(player, this, bindingContext);
         if (this.initialState == null) {
             fail(player, "Attempted to open a container without an initial state!");
             return;
         }
+        if (!this.resolved && !this.sealed) {
+            this.resolveReferences(); // anything left unresolved falls back to its ID
+        }
 
-        this.openState(player, this.initialState);
+        this.openState(player, this.getRef(this.initialState));
     }
 
     /**
      * Creates a copy of this StateContainer.
      *
+     * <p>No State is copied here. Both containers share every State
+     * until either of them hands it out through {@link #getState(String)},
+     * {@link #getStates()} or {@link #editState(String)}, so the copy only
+     * costs as much as what is used from it afterwards. The copy of a
+     * sealed container is not sealed.</p>
+     *
      * @return a copy of this StateContainer
      */
     @Nonnull
     public StateContainer copy() {
-        final StateContainer container = new StateContainer();
-
-        for (final State state : this.states.values()) {
-            container.addState(state.copy(container));
-        }
-
-        if (this.initialState != null) {
-            container.setInitialState(states.get(this.initialState));
+        final StateContainer container = new StateContainer(this.states, this.initialState);
+        container.ownsStates = false;
+        container.ownedStates.clear();
+
+        if (!this.sealed) { // a sealed container never changes what it shares
+            // Everything is shared now, in this container too.
+            this.ownsStates = false;
+            this.ownedStates.clear();
         }
 
         return container;
     }
 
+    /**
+     * Makes sure {@link #states} can be changed without affecting
+     * the containers it is shared with.
+     */
+    private void ensureOwnStates() {
+        if (!this.ownsStates) {
+            this.states = Maps.newHashMap(this.states);
+            this.ownsStates = true;
+        }
+    }
+
     /**
      * A simple convenience method to send failures to
      * {@link Player}s; added by a misguided, lazy developer.
@@ -0,0 +1,160 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import com.codehusky.huskyui.states.State;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A handle to a {@link State} of a {@link StateContainer}, together
+ * with the page number to open it on.
+ *
+ * <p>A StateRef is resolved by its container when the State is added,
+ * and kept up to date as the State is replaced or removed, so opening
+ * one needs no parsing of IDs and no lookups by ID.</p>
+ */
+public final class StateRef {
+
+    /**
+     * The {@link StateContainer} this StateRef belongs to.
+     */
+    @Nonnull private final StateContainer container;
+
+    /**
+     * The ID of the referenced {@link State}.
+     */
+    @Nonnull private final String id;
+
+    /**
+     * The page number to open the {@link State} on.
+     */
+    private final int page;
+
+    /**
+     * The StateRef to page 0 holding the resolved {@link State},
+     * or null if this is that StateRef.
+     */
+    @Nullable private final StateRef base;
+
+    /**
+     * The referenced {@link State}, or null while the container
+     * has no State with this ID. Only set on the base StateRef.
+     */
+    @Nullable private State state;
+
+    /**
+     * Constructs the base StateRef of an ID. For use only by {@link StateContainer}.
+     *
+     * @param container the StateContainer this StateRef belongs to
+     * @param id the ID of the referenced State
+     */
+    StateRef(@Nonnull final StateContainer container, @Nonnull final String id) {
+        this.container = container;
+        this.id = id;
+        this.page = 0;
+        this.base = null;
+        this.state = null;
+    }
+
+    private StateRef(@Nonnull final StateRef base, final int page) {
+        this.container = base.container;
+        this.id = base.id;
+        this.page = page;
+        this.base = base;
+        this.state = null;
+    }
+
+    /**
+     * Gets the {@link StateContainer} this StateRef belongs to.
+     *
+     * @return the StateContainer of this StateRef
+     */
+    @Nonnull
+    public StateContainer getContainer() {
+        return this.container;
+    }
+
+    /**
+     * Gets the ID of the referenced {@link State}.
+     *
+     * @return the ID of the State
+     */
+    @Nonnull
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets the page number to open the {@link State} on.
+     *
+     * @return the page number
+     */
+    public int getPage() {
+        return this.page;
+    }
+
+    /**
+     * Gets the referenced {@link State}.
+     *
+     * @return the State, or null if its container has no State with this ID
+     */
+    @Nullable
+    public State getState() {
+        return (this.base == null) ? this.state : this.base.state;
+    }
+
+    /**
+     * Determines whether or not the referenced {@link State} exists.
+     *
+     * @return true if the State exists; false otherwise
+     */
+    public boolean isResolved() {
+        return this.getState() != null;
+    }
+
+    /**
+     * Gets a StateRef to the same {@link State} on another page.
+     *
+     * @param page the page number
+     * @return a StateRef to that page
+     */
+    @Nonnull
+    public StateRef atPage(final int page) {
+        if (page == this.page) {
+            return this;
+        }
+        final StateRef base = (this.base == null) ? this : this.base;
+        return (page == 0) ? base : new StateRef(base, page);
+    }
+
+    /**
+     * Points this StateRef to another {@link State}. For use only by {@link StateContainer}.
+     *
+     * @param state the State now held under this ID, or null if removed
+     */
+    void resolve(@Nullable final State state) {
+        this.state = state;
+    }
+
+    @Override
+    public String toString() {
+        return (this.page == 0) ? this.id : this.id + "#" + this.page;
+    }
+}
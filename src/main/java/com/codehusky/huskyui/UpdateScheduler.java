@@ -0,0 +1,491 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.scheduler.Task;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Runs every periodic HuskyUI update from a single scheduler task.
+ *
+ * <p>Updaters are kept in buckets keyed by the tick they are next due
+ * on, so each tick only touches the updaters that actually run on it,
+ * instead of every updater waking up to check whether it is due.</p>
+ *
+ * <p>A per-tick budget can be set to cap how long HuskyUI spends on
+ * updates each tick. Updaters that don't fit are deferred to the next
+ * tick, ahead of that tick's own updaters, so they take turns instead
+ * of the same ones always missing out.</p>
+ *
+ * <p>The load of the server is measured every tick, from its TPS and
+ * from how long ticks take, so that adaptive Updaters can stretch
+ * their interval while the server is struggling.</p>
+ */
+public class UpdateScheduler {
+
+    /**
+     * The TPS below which the server is considered under load.
+     */
+    private static final double LOAD_START_TPS = 19.0;
+
+    /**
+     * The TPS at or below which the server is considered fully loaded.
+     */
+    private static final double LOAD_FULL_TPS = 10.0;
+
+    /**
+     * The mean tick time, in nanoseconds, above which the server is considered under load.
+     */
+    private static final double LOAD_START_TICK_NANOS = 55000000;
+
+    /**
+     * The mean tick time, in nanoseconds, at or above which the server is considered fully loaded.
+     */
+    private static final double LOAD_FULL_TICK_NANOS = 100000000;
+
+    /**
+     * Something to be run by the UpdateScheduler at a fixed interval.
+     */
+    public interface Updater {
+
+        /**
+         * Gets the number of ticks between two runs of this Updater.
+         *
+         * @return the interval in ticks
+         */
+        int getInterval();
+
+        /**
+         * Runs this Updater.
+         *
+         * @param elapsedTicks the ticks since this Updater was scheduled
+         */
+        void update(long elapsedTicks);
+    }
+
+    /**
+     * A scheduled {@link Updater}, used to cancel it.
+     */
+    public static final class Handle {
+
+        @Nonnull private final Updater updater;
+        @Nullable private final UUID owner;
+        private final long startTick;
+        private boolean cancelled;
+
+        private Handle(@Nonnull final Updater updater, @Nullable final UUID owner, final long startTick) {
+            this.updater = updater;
+            this.owner = owner;
+            this.startTick = startTick;
+            this.cancelled = false;
+        }
+
+        /**
+         * Determines whether or not this Handle's Updater has been cancelled.
+         *
+         * @return true if cancelled; false otherwise
+         */
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+    }
+
+    /**
+     * Scheduled Handles, sorted by the tick they are next due on.
+     */
+    @Nonnull private final Map<Long, List<Handle>> buckets;
+
+    /**
+     * Live Handles, sorted by the unique ID of the player they belong to.
+     */
+    @Nonnull private final Map<UUID, Set<Handle>> byOwner;
+
+    /**
+     * Handles that were due but didn't fit into the budget, in the
+     * order they are to be run on the next tick.
+     */
+    @Nonnull private List<Handle> deferred;
+
+    /**
+     * The most time, in nanoseconds, to spend on UI work each tick.
+     * Zero or less means no limit.
+     */
+    private long budgetNanos;
+
+    /**
+     * Time spent rendering outside of this UpdateScheduler since
+     * its last tick, charged against the budget of the next one.
+     */
+    private long chargedNanos;
+
+    /**
+     * Whether or not Updaters are being run right now.
+     */
+    private boolean running;
+
+    /**
+     * The number of ticks on which the budget ran out.
+     */
+    private long budgetExceeded;
+
+    /**
+     * The number of times an Updater was deferred to a later tick.
+     */
+    private long deferredRuns;
+
+    /**
+     * When the last tick ran, as given by {@link System#nanoTime()};
+     * zero if the task was not running on the last tick.
+     */
+    private long lastTickNanos;
+
+    /**
+     * The moving average of the time between two ticks, in nanoseconds.
+     */
+    private double meanTickNanos;
+
+    /**
+     * The load of the server as of the last tick, from 0 to 1.
+     */
+    private double load;
+
+    /**
+     * The number of ticks this UpdateScheduler has run for.
+     */
+    private long currentTick;
+
+    /**
+     * The number of scheduled Handles that haven't been cancelled.
+     */
+    private int liveCount;
+
+    /**
+     * The single task driving this UpdateScheduler, only
+     * running while something is scheduled.
+     */
+    @Nullable private Task task;
+
+    /**
+     * Constructs an UpdateScheduler. For use only by the HuskyUI main class.
+     */
+    UpdateScheduler() {
+        this.buckets = Maps.newHashMap();
+        this.byOwner = Maps.newHashMap();
+        this.deferred = Lists.newArrayList();
+        this.budgetNanos = 0;
+        this.chargedNanos = 0;
+        this.running = false;
+        this.budgetExceeded = 0;
+        this.deferredRuns = 0;
+        this.lastTickNanos = 0;
+        this.meanTickNanos = 50000000;
+        this.load = 0;
+        this.currentTick = 0;
+        this.liveCount = 0;
+        this.task = null;
+    }
+
+    /**
+     * Schedules an {@link Updater}, to first be run on the next tick.
+     *
+     * @param updater the Updater to schedule
+     * @return the Handle used to cancel it
+     */
+    @Nonnull
+    public Handle schedule(@Nonnull final Updater updater) {
+        return this.schedule(updater, null);
+    }
+
+    /**
+     * Schedules an {@link Updater} on behalf of a player, to first be
+     * run on the next tick. It is cancelled along with everything else
+     * of that player by {@link #cancelAll(UUID)}.
+     *
+     * @param updater the Updater to schedule
+     * @param owner the unique ID of the player the Updater belongs to
+     * @return the Handle used to cancel it
+     */
+    @Nonnull
+    public Handle schedule(@Nonnull final Updater updater, @Nullable final UUID owner) {
+        final Handle handle = new Handle(updater, owner, this.currentTick + 1);
+        this.enqueue(handle, handle.startTick);
+        if (owner != null) {
+            this.byOwner.computeIfAbsent(owner, id -> Sets.newHashSet()).add(handle);
+        }
+        this.liveCount++;
+        if (this.task == null) {
+            this.task = Task.builder().intervalTicks(1).execute(this::tick).submit(HuskyUI.getInstance());
+        }
+        return handle;
+    }
+
+    /**
+     * Cancels a scheduled {@link Updater}. Cancelling twice does nothing.
+     *
+     * @param handle the Handle of the Updater
+     */
+    public void cancel(@Nonnull final Handle handle) {
+        if (handle.cancelled) {
+            return;
+        }
+        handle.cancelled = true; // dropped from its bucket when that bucket comes due
+        this.liveCount--;
+        if (handle.owner != null) {
+            final Set<Handle> owned = this.byOwner.get(handle.owner);
+            if (owned != null) {
+                owned.remove(handle);
+                if (owned.isEmpty()) {
+                    this.byOwner.remove(handle.owner);
+                }
+            }
+        }
+        if (this.liveCount == 0 && this.task != null) {
+            this.task.cancel();
+            this.task = null;
+            this.lastTickNanos = 0;
+            this.buckets.clear();
+            this.deferred.clear();
+            this.chargedNanos = 0;
+        }
+    }
+
+    /**
+     * Cancels every {@link Updater} scheduled on behalf of a player.
+     *
+     * @param owner the unique ID of the player
+     */
+    public void cancelAll(@Nonnull final UUID owner) {
+        final Set<Handle> owned = this.byOwner.remove(owner);
+        if (owned == null) {
+            return;
+        }
+        for (final Handle handle : Lists.newArrayList(owned)) {
+            this.cancel(handle);
+        }
+    }
+
+    /**
+     * Gets the number of {@link Updater}s scheduled on behalf of a player.
+     *
+     * @param owner the unique ID of the player
+     * @return the number of live Updaters of that player
+     */
+    public int getLiveCount(@Nonnull final UUID owner) {
+        final Set<Handle> owned = this.byOwner.get(owner);
+        return (owned == null) ? 0 : owned.size();
+    }
+
+    /**
+     * Gets the number of {@link Updater}s currently scheduled.
+     *
+     * @return the number of live Updaters
+     */
+    public int getLiveCount() {
+        return this.liveCount;
+    }
+
+    /**
+     * Sets the most time HuskyUI may spend on UI work each tick.
+     *
+     * <p>At least one Updater always runs per tick, so a budget
+     * that is too small slows updates down rather than stopping them.</p>
+     *
+     * @param millis the budget in milliseconds; zero or less for no limit
+     */
+    public void setTickBudget(final double millis) {
+        this.budgetNanos = (millis <= 0) ? 0 : (long) (millis * 1000000);
+    }
+
+    /**
+     * Gets the most time HuskyUI may spend on UI work each tick.
+     *
+     * @return the budget in milliseconds; zero for no limit
+     */
+    public double getTickBudget() {
+        return this.budgetNanos / 1000000D;
+    }
+
+    /**
+     * Charges time spent rendering outside of an {@link Updater}
+     * against the budget of the next tick.
+     *
+     * @param nanos the time spent, in nanoseconds
+     */
+    public void charge(final long nanos) {
+        // Time spent within an Updater is already being measured, and without
+        // any Updater scheduled there is nothing to hold back for it.
+        if (!this.running && this.task != null) {
+            this.chargedNanos += nanos;
+        }
+    }
+
+    /**
+     * Determines whether or not there is budget left for work that can
+     * just as well wait for a later tick, such as prefetching pages.
+     *
+     * @return true if no Updater is waiting on the budget and the time
+     *         charged since the last tick is within it; always true without a budget
+     */
+    public boolean hasBudgetLeft() {
+        return this.budgetNanos <= 0 || (this.deferred.isEmpty() && this.chargedNanos < this.budgetNanos);
+    }
+
+    /**
+     * Gets the number of ticks on which the budget ran out
+     * before every due {@link Updater} could run.
+     *
+     * @return the number of ticks over budget
+     */
+    public long getBudgetExceededCount() {
+        return this.budgetExceeded;
+    }
+
+    /**
+     * Gets the number of times an {@link Updater} was deferred
+     * to the next tick for lack of budget.
+     *
+     * @return the number of deferred runs
+     */
+    public long getDeferredCount() {
+        return this.deferredRuns;
+    }
+
+    /**
+     * Resets the counts of {@link #getBudgetExceededCount()}
+     * and {@link #getDeferredCount()}.
+     */
+    public void resetBudgetStats() {
+        this.budgetExceeded = 0;
+        this.deferredRuns = 0;
+    }
+
+    /**
+     * Gets how loaded the server was as of the last tick, going from 0
+     * at full speed up to 1 when it struggles to run at all.
+     *
+     * <p>This only changes while something is scheduled.</p>
+     *
+     * @return the load of the server, from 0 to 1
+     */
+    public double getLoad() {
+        return this.load;
+    }
+
+    /**
+     * Gets the moving average of the time between two ticks.
+     *
+     * @return the mean tick time in milliseconds
+     */
+    public double getMeanTickTime() {
+        return this.meanTickNanos / 1000000D;
+    }
+
+    /**
+     * Gets the interval an adaptive {@link Updater} should currently use.
+     *
+     * @param minInterval the interval to use while the server keeps up
+     * @param maxInterval the interval to use while the server is fully loaded
+     * @return an interval between the two, depending on the load
+     */
+    public int getAdaptiveInterval(final int minInterval, final int maxInterval) {
+        if (maxInterval <= minInterval) {
+            return minInterval;
+        }
+        return minInterval + (int) Math.round((maxInterval - minInterval) * this.load);
+    }
+
+    private void measureLoad() {
+        final long now = System.nanoTime();
+        if (this.lastTickNanos != 0) {
+            this.meanTickNanos = (this.meanTickNanos * 0.95) + ((now - this.lastTickNanos) * 0.05);
+        }
+        this.lastTickNanos = now;
+        final double tps = Sponge.getServer().getTicksPerSecond();
+        final double tpsLoad = (LOAD_START_TPS - tps) / (LOAD_START_TPS - LOAD_FULL_TPS);
+        final double timeLoad = (this.meanTickNanos - LOAD_START_TICK_NANOS) / (LOAD_FULL_TICK_NANOS - LOAD_START_TICK_NANOS);
+        this.load = Math.min(1, Math.max(0, Math.max(tpsLoad, timeLoad)));
+    }
+
+    private void enqueue(@Nonnull final Handle handle, final long dueTick) {
+        this.buckets.computeIfAbsent(dueTick, tick -> Lists.newArrayList()).add(handle);
+    }
+
+    private void tick() {
+        this.currentTick++;
+        this.measureLoad();
+        final long spent = this.chargedNanos;
+        this.chargedNanos = 0;
+        final List<Handle> due = this.deferred;
+        final List<Handle> bucket = this.buckets.remove(this.currentTick);
+        if (bucket != null) {
+            due.addAll(bucket);
+        }
+        this.deferred = Lists.newArrayList();
+        if (due.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime() - spent;
+        boolean ranAny = false;
+        this.running = true;
+        try {
+            for (int i = 0; i < due.size(); i++) {
+                final Handle handle = due.get(i);
+                if (handle.cancelled) {
+                    continue;
+                }
+                if (ranAny && this.budgetNanos > 0 && System.nanoTime() - start >= this.budgetNanos) {
+                    this.defer(due.subList(i, due.size()));
+                    break;
+                }
+                ranAny = true;
+                try {
+                    handle.updater.update(this.currentTick - handle.startTick);
+                } catch (Exception e) {
+                    HuskyUI.getLogger().error("Error occurred while running a HuskyUI updater.", e);
+                }
+                if (!handle.cancelled) {
+                    this.enqueue(handle, this.currentTick + Math.max(1, handle.updater.getInterval()));
+                }
+            }
+        } finally {
+            this.running = false;
+        }
+    }
+
+    private void defer(@Nonnull final List<Handle> handles) {
+        for (final Handle handle : handles) {
+            if (!handle.cancelled) {
+                this.deferred.add(handle);
+            }
+        }
+        if (!this.deferred.isEmpty()) {
+            this.budgetExceeded++;
+            this.deferredRuns += this.deferred.size();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.data;
+
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.DataContainer;
+import org.spongepowered.api.data.DataHolder;
+import org.spongepowered.api.data.manipulator.mutable.common.AbstractSingleData;
+import org.spongepowered.api.data.merge.MergeFunction;
+import org.spongepowered.api.data.value.mutable.Value;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+
+/**
+ * Marks an {@link org.spongepowered.api.item.inventory.ItemStack} as belonging
+ * to a registered {@link com.codehusky.huskyui.states.element.Element}.
+ *
+ * <p>Reading this back through {@link HuskyKeys#ELEMENT_ID} only touches
+ * this manipulator, unlike pulling <code>UnsafeData</code> out of a full
+ * {@link DataContainer}.</p>
+ */
+public class ElementIdData extends AbstractSingleData<Integer, ElementIdData, ImmutableElementIdData> {
+
+    /**
+     * The version of the serialized form of this data.
+     */
+    static final int CONTENT_VERSION = 1;
+
+    /**
+     * Constructs a new ElementIdData.
+     *
+     * @param elementId the ID of the Element being marked
+     */
+    public ElementIdData(final int elementId) {
+        super(elementId, HuskyKeys.ELEMENT_ID);
+    }
+
+    /**
+     * Gets the {@link Value} of the Element ID.
+     *
+     * @return the Element ID value
+     */
+    @Nonnull
+    public Value<Integer> elementId() {
+        return Sponge.getRegistry().getValueFactory().createValue(HuskyKeys.ELEMENT_ID, this.getValue());
+    }
+
+    @Override
+    protected Value<?> getValueGetter() {
+        return this.elementId();
+    }
+
+    @Override
+    public Optional<ElementIdData> fill(final DataHolder dataHolder, final MergeFunction overlap) {
+        final Optional<ElementIdData> existing = dataHolder.get(ElementIdData.class);
+        if (existing.isPresent()) {
+            this.setValue(overlap.merge(this, existing.get()).getValue());
+        }
+        return Optional.of(this);
+    }
+
+    @Override
+    public Optional<ElementIdData> from(final DataContainer container) {
+        final Optional<Integer> id = container.getInt(HuskyKeys.ELEMENT_ID.getQuery());
+        if (!id.isPresent()) {
+            return Optional.empty();
+        }
+        this.setValue(id.get());
+        return Optional.of(this);
+    }
+
+    @Nonnull
+    @Override
+    public ElementIdData copy() {
+        return new ElementIdData(this.getValue());
+    }
+
+    @Nonnull
+    @Override
+    public ImmutableElementIdData asImmutable() {
+        return new ImmutableElementIdData(this.getValue());
+    }
+
+    @Override
+    public int getContentVersion() {
+        return CONTENT_VERSION;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.data;
+
+import org.spongepowered.api.data.DataHolder;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.data.manipulator.DataManipulatorBuilder;
+import org.spongepowered.api.data.persistence.AbstractDataBuilder;
+import org.spongepowered.api.data.persistence.InvalidDataException;
+
+import javax.annotation.Nonnull;
+import java.util.Optional;
+
+/**
+ * Builds {@link ElementIdData}, both fresh and from serialized items.
+ */
+public class ElementIdDataBuilder extends AbstractDataBuilder<ElementIdData>
+        implements DataManipulatorBuilder<ElementIdData, ImmutableElementIdData> {
+
+    /**
+     * Constructs a new ElementIdDataBuilder.
+     */
+    public ElementIdDataBuilder() {
+        super(ElementIdData.class, ElementIdData.CONTENT_VERSION);
+    }
+
+    @Nonnull
+    @Override
+    public ElementIdData create() {
+        return new ElementIdData(-1);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<ElementIdData> createFrom(@Nonnull final DataHolder dataHolder) {
+        return this.create().fill(dataHolder);
+    }
+
+    @Override
+    protected Optional<ElementIdData> buildContent(final DataView container) throws InvalidDataException {
+        return this.create().from(container.copy());
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.data;
+
+import org.spongepowered.api.data.DataQuery;
+import org.spongepowered.api.data.key.Key;
+import org.spongepowered.api.data.value.mutable.Value;
+import org.spongepowered.api.util.TypeTokens;
+
+/**
+ * The custom {@link Key}s HuskyUI attaches to {@link org.spongepowered.api.item.inventory.ItemStack}s.
+ *
+ * <p>This class is first touched by {@link com.codehusky.huskyui.HuskyUI}
+ * when it registers the Keys with Sponge, which is when they get built.</p>
+ */
+public final class HuskyKeys {
+
+    /**
+     * The ID of the {@link com.codehusky.huskyui.states.element.Element}
+     * that an ItemStack was handed out for by the
+     * {@link com.codehusky.huskyui.ElementRegistry}.
+     */
+    public static final Key<Value<Integer>> ELEMENT_ID = Key.builder()
+            .type(TypeTokens.INTEGER_VALUE_TOKEN)
+            .id("element_id")
+            .name("Element ID")
+            .query(DataQuery.of("HuskyUIElementID"))
+            .build();
+
+    private HuskyKeys() {}
+}
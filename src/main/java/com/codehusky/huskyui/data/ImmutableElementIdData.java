@@ -0,0 +1,65 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.data;
+
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.data.manipulator.immutable.common.AbstractImmutableSingleData;
+import org.spongepowered.api.data.value.immutable.ImmutableValue;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The immutable counterpart of {@link ElementIdData}.
+ */
+public class ImmutableElementIdData extends AbstractImmutableSingleData<Integer, ImmutableElementIdData, ElementIdData> {
+
+    /**
+     * Constructs a new ImmutableElementIdData.
+     *
+     * @param elementId the ID of the Element being marked
+     */
+    public ImmutableElementIdData(final int elementId) {
+        super(elementId, HuskyKeys.ELEMENT_ID);
+    }
+
+    /**
+     * Gets the {@link ImmutableValue} of the Element ID.
+     *
+     * @return the Element ID value
+     */
+    @Nonnull
+    public ImmutableValue<Integer> elementId() {
+        return Sponge.getRegistry().getValueFactory().createValue(HuskyKeys.ELEMENT_ID, this.getValue()).asImmutable();
+    }
+
+    @Override
+    protected ImmutableValue<?> getValueGetter() {
+        return this.elementId();
+    }
+
+    @Nonnull
+    @Override
+    public ElementIdData asMutable() {
+        return new ElementIdData(this.getValue());
+    }
+
+    @Override
+    public int getContentVersion() {
+        return ElementIdData.CONTENT_VERSION;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Custom data that HuskyUI attaches to {@link org.spongepowered.api.item.inventory.ItemStack}s,
+ * so that they can be recognized again without serializing the whole stack.
+ */
+package com.codehusky.huskyui.data;
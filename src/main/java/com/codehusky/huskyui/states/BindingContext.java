@@ -0,0 +1,154 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.states;
+
+import com.codehusky.huskyui.states.element.Element;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.spongepowered.api.entity.living.player.Player;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The values a template {@link com.codehusky.huskyui.StateContainer}
+ * is launched with for one player.
+ *
+ * <p>A container is built once, with bound {@link Element}s in place of
+ * the parts that differ between players. Launching it for a player with
+ * a BindingContext then only resolves those Elements, when they are
+ * rendered, instead of building the whole container again.</p>
+ */
+public final class BindingContext {
+
+    /**
+     * The {@link Player} the container is launched for.
+     */
+    @Nonnull private final Player player;
+
+    /**
+     * The bound values, sorted by their key.
+     */
+    @Nonnull private final Map<String, Object> values;
+
+    private BindingContext(@Nonnull final Player player, @Nonnull final Map<String, Object> values) {
+        this.player = player;
+        this.values = ImmutableMap.copyOf(values);
+    }
+
+    /**
+     * Gets the {@link Player} the container is launched for.
+     *
+     * @return the Player of this context
+     */
+    @Nonnull
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    /**
+     * Gets a bound value.
+     *
+     * @param key the key of the value
+     * @return the value, if one is bound to the key
+     */
+    @Nonnull
+    public Optional<Object> get(@Nonnull final String key) {
+        return Optional.ofNullable(this.values.get(key));
+    }
+
+    /**
+     * Gets a bound value of a given type.
+     *
+     * @param key the key of the value
+     * @param type the type of the value
+     * @param <T> the type of the value
+     * @return the value, if one of that type is bound to the key
+     */
+    @Nonnull
+    public <T> Optional<T> get(@Nonnull final String key, @Nonnull final Class<T> type) {
+        final Object value = this.values.get(key);
+        return (type.isInstance(value)) ? Optional.of(type.cast(value)) : Optional.empty();
+    }
+
+    /**
+     * Creates a BindingContext holding nothing but its {@link Player}.
+     *
+     * @param player the Player the container is launched for
+     * @return a new BindingContext
+     */
+    @Nonnull
+    public static BindingContext of(@Nonnull final Player player) {
+        return new BindingContext(player, ImmutableMap.of());
+    }
+
+    /**
+     * Creates a new {@link BindingContextBuilder}.
+     *
+     * @param player the Player the container is launched for
+     * @return a new BindingContextBuilder
+     */
+    @Nonnull
+    public static BindingContextBuilder builder(@Nonnull final Player player) {
+        return new BindingContextBuilder(player);
+    }
+
+    /**
+     * An easy-to-use class for creating {@link BindingContext}s.
+     */
+    public static class BindingContextBuilder {
+
+        @Nonnull private final Player player;
+        @Nonnull private final Map<String, Object> values;
+
+        /**
+         * Constructs a new BindingContextBuilder, currently only
+         * accessible via {@link BindingContext#builder(Player)}.
+         *
+         * @param player the Player the container is launched for
+         */
+        private BindingContextBuilder(@Nonnull final Player player) {
+            this.player = player;
+            this.values = Maps.newHashMap();
+        }
+
+        /**
+         * Binds a value to a key.
+         *
+         * @param key the key of the value
+         * @param value the value
+         * @return this BindingContextBuilder
+         */
+        @Nonnull
+        public BindingContextBuilder bind(@Nonnull final String key, @Nonnull final Object value) {
+            this.values.put(key, value);
+            return this;
+        }
+
+        /**
+         * Builds this BindingContextBuilder.
+         *
+         * @return a new BindingContext
+         */
+        @Nonnull
+        public BindingContext build() {
+            return new BindingContext(this.player, this.values);
+        }
+    }
+}
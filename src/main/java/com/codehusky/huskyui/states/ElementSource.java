@@ -0,0 +1,55 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.states;
+
+import com.codehusky.huskyui.states.element.Element;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Supplies the {@link Element}s of a {@link Page} on demand,
+ * instead of all of them being put into the Page up front.
+ *
+ * <p>A Page backed by an ElementSource only asks for the
+ * Elements visible on the page being rendered, which keeps
+ * very large auto-paged lists cheap to open.</p>
+ */
+public interface ElementSource {
+
+    /**
+     * Gets the total number of Elements this source holds.
+     *
+     * @return the number of Elements
+     */
+    int size();
+
+    /**
+     * Gets a range of Elements.
+     *
+     * <p>The Element at position <code>i</code> of the returned list
+     * has the key <code>offset + i</code>. The list may be shorter than
+     * <code>count</code>, and may contain nulls for keys without an Element.</p>
+     *
+     * @param offset the key of the first Element to get
+     * @param count the maximum number of Elements to get
+     * @return the Elements in that range
+     */
+    @Nonnull
+    List<Element> fetch(int offset, int count);
+}
@@ -0,0 +1,229 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.states;
+
+import com.google.common.collect.Maps;
+import org.spongepowered.api.data.key.Keys;
+import org.spongepowered.api.item.ItemType;
+import org.spongepowered.api.item.ItemTypes;
+import org.spongepowered.api.item.inventory.ItemStack;
+import org.spongepowered.api.item.inventory.ItemStackSnapshot;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.format.TextColors;
+import org.spongepowered.api.text.format.TextStyles;
+
+import javax.annotation.Nonnull;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The look of the navigation buttons an auto-paged {@link Page}
+ * puts in its bottom row.
+ *
+ * <p>Every button is tagged once when the style is built, and the
+ * resulting snapshots are shared by every Page using the style.</p>
+ */
+public final class NavigationStyle {
+
+    /**
+     * The navigation buttons HuskyUI places on auto-paged {@link Page}s.
+     */
+    public enum Button {
+
+        /**
+         * Goes to the previous page.
+         */
+        PREVIOUS(-2),
+
+        /**
+         * Goes to the next page.
+         */
+        NEXT(-3),
+
+        /**
+         * Returns to the parent, shown when the Page has one.
+         */
+        BACK(-1),
+
+        /**
+         * Closes the GUI, shown when the Page has no parent.
+         */
+        CLOSE(-1);
+
+        /**
+         * The slot number clicks on this button report.
+         */
+        private final int slotNum;
+
+        Button(final int slotNum) {
+            this.slotNum = slotNum;
+        }
+
+        /**
+         * Gets the slot number clicks on this button report.
+         *
+         * @return the slot number of this button
+         */
+        public int getSlotNum() {
+            return this.slotNum;
+        }
+    }
+
+    /**
+     * The style HuskyUI uses when none is given.
+     */
+    private static NavigationStyle defaultStyle;
+
+    /**
+     * Styles registered by plugins, sorted by their ID.
+     */
+    private static final Map<String, NavigationStyle> registered = Maps.newHashMap();
+
+    /**
+     * The pre-tagged button for each role.
+     */
+    @Nonnull private final EnumMap<Button, ItemStackSnapshot> buttons;
+
+    /**
+     * Constructs a NavigationStyle, tagging every button.
+     *
+     * @param stacks the untagged ItemStack for every button
+     */
+    private NavigationStyle(@Nonnull final Map<Button, ItemStack> stacks) {
+        this.buttons = new EnumMap<>(Button.class);
+        for (final Map.Entry<Button, ItemStack> entry : stacks.entrySet()) {
+            this.buttons.put(entry.getKey(), Page.tag(entry.getValue(), entry.getKey().getSlotNum()));
+        }
+    }
+
+    /**
+     * Gets the pre-tagged snapshot of a button.
+     *
+     * @param button the button to get
+     * @return the snapshot of that button
+     */
+    @Nonnull
+    public ItemStackSnapshot get(@Nonnull final Button button) {
+        return this.buttons.get(button);
+    }
+
+    /**
+     * Gets the style HuskyUI uses when none is given.
+     *
+     * @return the default NavigationStyle
+     */
+    @Nonnull
+    public static NavigationStyle getDefault() {
+        if (defaultStyle == null) {
+            defaultStyle = new NavigationStyle(defaultStacks());
+        }
+        return defaultStyle;
+    }
+
+    /**
+     * Registers a style under an ID, so other plugins can use it too.
+     *
+     * @param id the ID of the style
+     * @param style the style to register
+     */
+    public static void register(@Nonnull final String id, @Nonnull final NavigationStyle style) {
+        registered.put(id, style);
+    }
+
+    /**
+     * Gets a style registered through {@link #register(String, NavigationStyle)}.
+     *
+     * @param id the ID of the style
+     * @return the style, if one is registered under that ID
+     */
+    @Nonnull
+    public static Optional<NavigationStyle> getRegistered(@Nonnull final String id) {
+        return Optional.ofNullable(registered.get(id));
+    }
+
+    /**
+     * Creates a new {@link NavigationStyleBuilder}, starting from the default buttons.
+     *
+     * @return a new NavigationStyleBuilder
+     */
+    @Nonnull
+    public static NavigationStyleBuilder builder() {
+        return new NavigationStyleBuilder();
+    }
+
+    @Nonnull
+    private static EnumMap<Button, ItemStack> defaultStacks() {
+        final EnumMap<Button, ItemStack> stacks = new EnumMap<>(Button.class);
+        stacks.put(Button.PREVIOUS, button(ItemTypes.MAP, "Previous"));
+        stacks.put(Button.NEXT, button(ItemTypes.MAP, "Next"));
+        stacks.put(Button.BACK, button(ItemTypes.BARRIER, "Back"));
+        stacks.put(Button.CLOSE, button(ItemTypes.BARRIER, "Close"));
+        return stacks;
+    }
+
+    @Nonnull
+    private static ItemStack button(@Nonnull final ItemType type, @Nonnull final String name) {
+        return ItemStack.builder()
+                .itemType(type)
+                .add(Keys.DISPLAY_NAME, Text.of(TextStyles.RESET, TextColors.WHITE, name))
+                .build();
+    }
+
+    /**
+     * An easy-to-use class for creating {@link NavigationStyle}s.
+     */
+    public static class NavigationStyleBuilder {
+
+        /**
+         * The untagged ItemStack for every button.
+         */
+        @Nonnull private final EnumMap<Button, ItemStack> stacks;
+
+        /**
+         * Constructs a new NavigationStyleBuilder, currently only
+         * accessible via {@link NavigationStyle#builder()}.
+         */
+        private NavigationStyleBuilder() {
+            this.stacks = defaultStacks();
+        }
+
+        /**
+         * Sets the {@link ItemStack} used for a button.
+         *
+         * @param button the button to set
+         * @param stack the ItemStack to show for it
+         * @return this NavigationStyleBuilder
+         */
+        @Nonnull
+        public NavigationStyleBuilder setButton(@Nonnull final Button button, @Nonnull final ItemStack stack) {
+            this.stacks.put(button, stack);
+            return this;
+        }
+
+        /**
+         * Builds this NavigationStyleBuilder, tagging every button.
+         *
+         * @return a new NavigationStyle
+         */
+        @Nonnull
+        public NavigationStyle build() {
+            return new NavigationStyle(this.stacks);
+        }
+    }
+}
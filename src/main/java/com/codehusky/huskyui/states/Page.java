@@ -19,9 +19,17 @@ package com.codehusky.huskyui.states;
 
 import com.codehusky.huskyui.HuskyUI;
 import com.codehusky.huskyui.InventoryUtil;
+import com.codehusky.huskyui.PlayerSession;
+import com.codehusky.huskyui.SessionRegistry;
 import com.codehusky.huskyui.StateContainer;
+import com.codehusky.huskyui.StateRef;
+import com.codehusky.huskyui.UpdateScheduler;
+import com.codehusky.huskyui.states.action.ActionContext;
+import com.codehusky.huskyui.states.action.runnable.AsyncRunnableAction;
 import com.codehusky.huskyui.states.element.ActionableElement;
 import com.codehusky.huskyui.states.element.Element;
+import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.spongepowered.api.data.DataQuery;
 import org.spongepowered.api.data.key.Keys;
@@ -36,16 +44,28 @@ import org.spongepowered.api.item.inventory.property.StringProperty;
 import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.format.TextColors;
-import org.spongepowered.api.text.format.TextStyles;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * An extension of {@link State}, intended to be used for
  * chest-based GUIs.
+ *
+ * <p>A Page added to a {@link StateContainer} acts as a definition.
+ * Opening it gives every viewer a view of their own, made with
+ * {@link #createView(StateContainer, Player)}, which shares the
+ * definition's Elements and render plan and only keeps what differs
+ * per viewer, such as the observer, the page shown and the ticks.</p>
  */
 public class Page extends State {
 
@@ -64,7 +84,80 @@ public class Page extends State {
      * <p>Elements are sorted by integer, ostensibly referring
      * to their placement in the chest.</p>
      */
-    @Nonnull private final Map<Integer, Element> elements;
+    @Nonnull private Map<Integer, Element> elements;
+
+    /**
+     * Whether or not {@link #elements} belongs to this Page alone.
+     * Views share the map of their definition until one of them changes an Element.
+     */
+    private boolean ownsElements = true;
+
+    /**
+     * The map handed out by {@link #getElements()}, created when first asked for.
+     */
+    @Nullable private Map<Integer, Element> elementMap;
+
+    /**
+     * The Page this Page is a view of, or null if it is a definition itself.
+     */
+    @Nullable private Page definition;
+
+    /**
+     * The {@link StateRef} this view was opened through, if any.
+     */
+    @Nullable private StateRef stateRef;
+
+    /**
+     * The values bound {@link Element}s of this view are resolved from,
+     * if it was opened from a template container.
+     */
+    @Nullable private BindingContext bindingContext;
+
+    /**
+     * The keys of the bound {@link Element}s of this Page, or null
+     * until first needed.
+     */
+    @Nullable private BitSet boundKeys;
+
+    /**
+     * Whether or not this Page has been frozen by {@link #seal()}.
+     */
+    private volatile boolean sealed;
+
+    /**
+     * Supplies the {@link Element}s on demand instead of {@link #elements},
+     * if this Page was built with one.
+     */
+    @Nullable private ElementSource elementSource;
+
+    /**
+     * The {@link Element}s fetched from {@link #elementSource} for the
+     * page most recently compiled, sorted by their key.
+     */
+    @Nonnull private final Map<Integer, Element> sourceWindow = Maps.newHashMap();
+
+    /**
+     * Loads the real {@link Element}s of this Page off of the main thread,
+     * if this Page was built with it. Until it completes, the Elements
+     * this Page was built with are shown as a loading layout.
+     */
+    @Nullable private Function<Player, CompletableFuture<Map<Integer, Element>>> asyncContent;
+
+    /**
+     * Whether or not the pages next to the one shown are compiled
+     * ahead of time, on the ticks after it is shown.
+     */
+    private boolean prefetch;
+
+    /**
+     * Whether or not {@link #asyncContent} has been started for this Page.
+     */
+    private boolean asyncContentStarted;
+
+    /**
+     * The load of {@link #asyncContent} in progress, if any.
+     */
+    @Nullable private CompletableFuture<Map<Integer, Element>> asyncContentLoad;
 
     /**
      * The {@link InventoryDimension} is the space in which {@link Element}s
@@ -87,6 +180,11 @@ public class Page extends State {
      */
     @Nonnull private final ItemStack emptyStack;
 
+    /**
+     * A snapshot of {@link #emptyStack}, shared by every compiled page.
+     */
+    @Nullable private ItemStackSnapshot emptySnapshot;
+
     /**
      * Whether or not to fill empty stacks with
      * predetermined {@link ItemStack}s.
@@ -114,13 +212,91 @@ public class Page extends State {
      * being digested by the Page.</p>
      */
     private final int rows;
+
+    /**
+     * Whether or not moving between pages rewrites the slots of the
+     * open inventory, instead of opening a new one.
+     */
+    private final boolean inPlacePaging;
     private boolean updatable;
     private int updateTickRate;
+
+    /**
+     * The most ticks between updates while the server is under load.
+     * Equal to {@link #updateTickRate} unless the rate is adaptive.
+     */
+    private int maxUpdateTickRate;
     private Consumer<Page> updateConsumer;
     private Runnable interrupt;
     private Inventory cachedInventory;
 
-    private Task updaterTask;
+    @Nullable private UpdateScheduler.Handle updaterHandle;
+
+    /**
+     * The page number currently shown by this Page's inventory.
+     */
+    private int currentPage;
+
+    /**
+     * The slots of the last inventory rendered by this Page,
+     * kept around so they can be rewritten in place.
+     */
+    @Nullable private Inventory[] renderedSlots;
+
+    /**
+     * The render plan currently shown in {@link #renderedSlots}.
+     */
+    @Nullable private ItemStackSnapshot[] renderedPlan;
+
+    /**
+     * The compiled contents of this Page, indexed by page number and then
+     * by slot. Slots left null are not touched when rendering.
+     *
+     * <p>Element layouts don't change once a Page is built, so every
+     * pre-tagged {@link ItemStackSnapshot} is made once here instead of
+     * on every {@link #getPageView(int)}.</p>
+     */
+    private ItemStackSnapshot[][] renderPlan;
+
+    /**
+     * Whether or not {@link #renderPlan} belongs to this Page alone.
+     * Copies share their plan until one of them changes an Element.
+     */
+    private boolean ownsRenderPlan;
+
+    /**
+     * The pages of {@link #renderPlan} that belong to this Page alone,
+     * once it owns the plan. Shared pages are copied when first written.
+     */
+    @Nonnull private final BitSet ownedPages = new BitSet();
+
+    /**
+     * The keys of bound {@link Element}s not resolved from the
+     * {@link BindingContext} yet. Each page resolves its own the
+     * first time it is shown.
+     */
+    @Nonnull private final BitSet unboundKeys = new BitSet();
+
+    /**
+     * The keys of {@link Element}s changed through {@link #setElement(int, Element)}
+     * that haven't been flushed to the inventory yet.
+     */
+    @Nonnull private final BitSet dirtyElements = new BitSet();
+
+    /**
+     * Whether or not a flush of {@link #dirtyElements} is already scheduled.
+     */
+    private boolean flushScheduled;
+
+    /**
+     * Where the slot number of a rendered {@link Element} is stored on its item.
+     */
+    static final DataQuery SLOT_NUM = DataQuery.of("UnsafeData", "slotnum");
+
+    /**
+     * The look of the navigation buttons, when {@link #autoPaging} is enabled.
+     */
+    @Nonnull private final NavigationStyle navigationStyle;
 
     /**
      * Constructs a Page.
@@ -154,7 +330,49 @@ public class Page extends State {
                 final boolean centered,
                 final int rows,
                 final String parent) {
+        this(id, elements, inventoryDimension, inventoryArchetype, title, emptyStack, updatable, updateTickRate,
+                updateConsumer, interrupt, fillWhenEmpty, autoPaging, centered, rows, parent, NavigationStyle.getDefault(), false);
+    }
+
+    /**
+     * Constructs a Page with its own {@link NavigationStyle}.
+     *
+     * @param id the ID of the State this Page extends
+     * @param elements the {@link ItemStack}s in use by this Page
+     * @param inventoryDimension the virtual inventory this Page represents
+     * @param title the name of the chest
+     * @param emptyStack the ItemStack to be used if filling blank spaces
+     * @param updatable if the Page is updatable or not
+     * @param updateTickRate if the page is updatable, how many ticks will be between updates.
+     * @param updateConsumer the consumer to run if the page is updatable every {@link Page#updateTickRate} ticks.
+     * @param fillWhenEmpty whether or not to fill blank spaces
+     * @param autoPaging whether or not to let HuskyUI handle paging
+     * @param centered whether or not to center ItemStacks
+     * @param rows the number of rows within the InventoryDimension
+     * @param parent the parent page of this page.
+     * @param navigationStyle the look of the navigation buttons
+     * @param inPlacePaging whether or not to turn pages within the open inventory
+     */
+    public Page(@Nonnull final String id,
+                @Nonnull final Map<Integer, Element> elements,
+                @Nonnull final InventoryDimension inventoryDimension,
+                @Nonnull final InventoryArchetype inventoryArchetype,
+                @Nonnull final Text title,
+                @Nonnull final ItemStack emptyStack,
+                final boolean updatable,
+                final int updateTickRate,
+                final Consumer<Page> updateConsumer,
+                final Runnable interrupt,
+                final boolean fillWhenEmpty,
+                final boolean autoPaging,
+                final boolean centered,
+                final int rows,
+                final String parent,
+                @Nonnull final NavigationStyle navigationStyle,
+                final boolean inPlacePaging) {
         super(id);
+        this.navigationStyle = navigationStyle;
+        this.inPlacePaging = inPlacePaging;
         this.elements = elements;
         this.inventoryDimension = inventoryDimension;
         this.inventoryArchetype = inventoryArchetype;
@@ -166,6 +384,7 @@ public class Page extends State {
         this.rows = rows;
         this.updatable = updatable;
         this.updateTickRate = updateTickRate;
+        this.maxUpdateTickRate = updateTickRate;
         this.updateConsumer = updateConsumer;
         this.interrupt = interrupt;
         cachedInventory = null;
@@ -176,239 +395,1126 @@ public class Page extends State {
         return updateConsumer;
     }
 
-    public int getUpdateTickRate() {
-        return updateTickRate;
+    public int getUpdateTickRate() {
+        return updateTickRate;
+    }
+
+    /**
+     * Gets the most ticks between updates while the server is under load.
+     *
+     * @return the maximum update tick rate; equal to {@link #getUpdateTickRate()} if not adaptive
+     */
+    public int getMaxUpdateTickRate() {
+        return this.maxUpdateTickRate;
+    }
+
+    /**
+     * Determines whether or not this Page updates less often while the server is under load.
+     *
+     * @return true if the update rate is adaptive; false otherwise
+     */
+    public boolean isAdaptiveUpdateRate() {
+        return this.maxUpdateTickRate > this.updateTickRate;
+    }
+
+    public boolean isUpdatable() {
+        return updatable;
+    }
+
+    /**
+     * Gets the {@link ItemStack}s in use by this Page.
+     *
+     * <p>The rendered contents are compiled when the Page is built, so
+     * changes made through this map go through {@link #setElement(int, Element)}:
+     * they are shown once the changed slots are flushed, and never change
+     * what another view of the same Page is showing. Changing the map
+     * through its key, value or entry sets is not supported.</p>
+     *
+     * <p>The map of a sealed Page can't be changed at all.</p>
+     *
+     * @return the ItemSTacks in use by this Page
+     */
+    @Nonnull
+    public Map<Integer, Element> getElements() {
+        if (this.sealed) {
+            return Collections.unmodifiableMap(this.elements);
+        }
+        if (this.elementMap == null) {
+            this.elementMap = new ElementMap();
+        }
+        return this.elementMap;
+    }
+
+    /**
+     * Gets a read-only view of the {@link Element}s in use by this Page.
+     *
+     * <p>Unlike {@link #getElements()}, this never copies anything, so it
+     * can be used to read Pages that share their Elements with others.</p>
+     *
+     * @return an unmodifiable view of the Elements in use by this Page
+     */
+    @Nonnull
+    public Map<Integer, Element> getElementView() {
+        return Collections.unmodifiableMap(this.elements);
+    }
+
+    /**
+     * The map handed out by {@link #getElements()}, reading this Page's
+     * current Elements and writing through {@link #setElement(int, Element)}.
+     */
+    private final class ElementMap extends ForwardingMap<Integer, Element> {
+
+        @Override
+        protected Map<Integer, Element> delegate() {
+            return Collections.unmodifiableMap(Page.this.elements);
+        }
+
+        @Override
+        public Element put(final Integer key, final Element value) {
+            final Element previous = Page.this.elements.get(key);
+            Page.this.setElement(key, value);
+            return previous;
+        }
+
+        @Override
+        public void putAll(final Map<? extends Integer, ? extends Element> map) {
+            this.standardPutAll(map);
+        }
+
+        @Override
+        public Element remove(final Object key) {
+            if (!(key instanceof Integer) || !Page.this.elements.containsKey(key)) {
+                return null;
+            }
+            final Element previous = Page.this.elements.get(key);
+            Page.this.setElement((Integer) key, null);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            for (final Integer key : Lists.newArrayList(Page.this.elements.keySet())) {
+                Page.this.setElement(key, null);
+            }
+        }
+    }
+
+    /**
+     * Gets the Page this Page is a view of.
+     *
+     * @return the definition of this view, or this Page if it isn't a view
+     */
+    @Nonnull
+    public Page getDefinition() {
+        return (this.definition != null) ? this.definition : this;
+    }
+
+    /**
+     * Determines whether or not this Page is a per-viewer view of another Page.
+     *
+     * @return true if this Page is a view; false otherwise
+     */
+    public boolean isView() {
+        return this.definition != null;
+    }
+
+    /**
+     * Gets the {@link StateRef} this view was opened through.
+     *
+     * @return the StateRef, or null if not opened through one
+     */
+    @Nullable
+    public StateRef getStateRef() {
+        return this.stateRef;
+    }
+
+    /**
+     * Gets the values bound {@link Element}s of this view are resolved from.
+     *
+     * @return the BindingContext, or null if this view has none
+     */
+    @Nullable
+    public BindingContext getBindingContext() {
+        return this.bindingContext;
+    }
+
+    /**
+     * Creates a view of this Page for one viewer.
+     *
+     * <p>Nothing is copied: the view shares this Page's {@link Element}s,
+     * their Actions and the compiled render plan, and copies them only if an
+     * Element of the view is changed through {@link #setElement(int, Element)}.
+     * It keeps its own observer, page number, ticks and updater.</p>
+     *
+     * @param container the {@link StateContainer} the view is opened from
+     * @param observer the Player viewing the Page
+     * @return a new view of this Page
+     */
+    @Nonnull
+    public Page createView(@Nonnull final StateContainer container, @Nonnull final Player observer) {
+        return this.createView(container, observer, null);
+    }
+
+    /**
+     * Creates a view of this Page for one viewer, opened through a {@link StateRef}.
+     *
+     * <p>Paging and returning to the parent from the view then go
+     * through StateRefs, without looking anything up by ID.</p>
+     *
+     * @param container the {@link StateContainer} the view is opened from
+     * @param observer the Player viewing the Page
+     * @param stateRef the StateRef the view is opened through, if any
+     * @return a new view of this Page
+     */
+    @Nonnull
+    public Page createView(@Nonnull final StateContainer container, @Nonnull final Player observer,
+                           @Nullable final StateRef stateRef) {
+        return this.createView(container, observer, stateRef, null);
+    }
+
+    /**
+     * Creates a view of this Page for one viewer of a template container.
+     *
+     * <p>Only the bound {@link Element}s are resolved from the
+     * {@link BindingContext}, on each page as it is first shown; the
+     * rest of the render plan stays shared. Pages backed by an
+     * {@link ElementSource} resolve them as each page is compiled.</p>
+     *
+     * @param container the {@link StateContainer} the view is opened from
+     * @param observer the Player viewing the Page
+     * @param stateRef the StateRef the view is opened through, if any
+     * @param bindingContext the values to resolve bound Elements from, if any
+     * @return a new view of this Page
+     */
+    @Nonnull
+    public Page createView(@Nonnull final StateContainer container, @Nonnull final Player observer,
+                           @Nullable final StateRef stateRef, @Nullable final BindingContext bindingContext) {
+        final Page definition = this.getDefinition();
+        if (definition.renderPlan == null && definition.elementSource == null) {
+            definition.renderPlan = definition.compileRenderPlan();
+        }
+        final Page view = new Page(definition.getId(), definition.elements, definition.inventoryDimension,
+                definition.inventoryArchetype, definition.title, definition.emptyStack, definition.updatable,
+                definition.updateTickRate, definition.updateConsumer, definition.interrupt, definition.fillWhenEmpty,
+                definition.autoPaging, definition.centered, definition.rows, definition.getParent(),
+                definition.navigationStyle, definition.inPlacePaging);
+        view.definition = definition;
+        view.stateRef = stateRef;
+        view.maxUpdateTickRate = definition.maxUpdateTickRate;
+        view.elementSource = definition.elementSource;
+        view.asyncContent = definition.asyncContent;
+        view.prefetch = definition.prefetch;
+        view.emptySnapshot = definition.emptySnapshot;
+        view.renderPlan = definition.renderPlan;
+        view.ownsRenderPlan = false;
+        view.ownsElements = false;
+        // The definition must not change what its views are showing either.
+        if (definition.ownsRenderPlan) {
+            definition.ownsRenderPlan = false;
+        }
+        if (definition.ownsElements) {
+            definition.ownsElements = false;
+        }
+        view.setContainer(container);
+        view.setObserver(observer);
+        if (bindingContext != null) {
+            view.bindingContext = bindingContext;
+            final BitSet bound = definition.getBoundKeys();
+            if (view.elementSource == null) {
+                view.unboundKeys.or(bound); // resolved by getRenderPlan, for the pages actually shown
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Compiles this Page ahead of time and freezes it, so that creating
+     * views of it never changes it. Typically done by {@link StateContainer#seal()}.
+     *
+     * <p>Views of a sealed Page can still be changed; the Page itself no longer
+     * can, and neither can its parent, observer or container.</p>
+     */
+    public void seal() {
+        if (this.sealed) {
+            return;
+        }
+        if (this.elementSource == null && this.renderPlan == null) {
+            this.renderPlan = this.compileRenderPlan();
+        }
+        if (this.emptySnapshot == null) {
+            this.emptySnapshot = this.emptyStack.createSnapshot();
+        }
+        this.ownsRenderPlan = false;
+        this.ownsElements = false;
+        this.getBoundKeys();
+        this.sealed = true;
+    }
+
+    /**
+     * Determines whether or not this Page has been frozen by {@link #seal()}.
+     *
+     * @return true if sealed; false otherwise
+     */
+    public boolean isSealed() {
+        return this.sealed;
+    }
+
+    /**
+     * Gets the keys of the bound {@link Element}s of this Page.
+     *
+     * @return the keys of every bound Element
+     */
+    @Nonnull
+    private BitSet getBoundKeys() {
+        if (this.boundKeys == null) {
+            this.boundKeys = new BitSet();
+            for (final Map.Entry<Integer, Element> entry : this.elements.entrySet()) {
+                if (entry.getKey() >= 0 && entry.getValue().isBound()) {
+                    this.boundKeys.set(entry.getKey());
+                }
+            }
+        }
+        return this.boundKeys;
+    }
+
+    /**
+     * Gets the {@link ItemStack} to show for an {@link Element},
+     * resolving it from the {@link BindingContext} if it is bound.
+     *
+     * @param element the Element to show
+     * @return the ItemStack to show
+     */
+    @Nonnull
+    private ItemStack itemFor(@Nonnull final Element element) {
+        return (this.bindingContext != null) ? element.getItem(this.bindingContext) : element.getItem();
+    }
+
+    /**
+     * Gets the source supplying this Page's {@link Element}s on demand.
+     *
+     * @return the ElementSource, or null if the Elements are held by this Page
+     */
+    @Nullable
+    public ElementSource getElementSource() {
+        return this.elementSource;
+    }
+
+    /**
+     * Gets the {@link Element} under a key, looking in the
+     * fetched window when backed by an {@link ElementSource}.
+     *
+     * @param index the key of the Element
+     * @return the Element, or null if there is none (or it isn't fetched)
+     */
+    @Nullable
+    private Element elementAt(final int index) {
+        return (this.elementSource != null) ? this.sourceWindow.get(index) : this.elements.get(index);
+    }
+
+    /**
+     * Gets the virtual inventory this Page represents.
+     *
+     * @return the virtual inventory this Page represents
+     */
+    @Nonnull
+    public InventoryDimension getInventoryDimension() {
+        return this.inventoryDimension;
+    }
+
+    /**
+     * Gets the title of the chest this Page uses.
+     *
+     * @return the title of the chest
+     */
+    @Nonnull
+    public Text getTitle() {
+        return this.title;
+    }
+
+    /**
+     * Gets the {@link ItemStack} to use when an {@link Element}
+     * hasn't been given.
+     *
+     * @return the default ItemStack
+     */
+    @Nonnull
+    public ItemStack getEmptyStack() {
+        return this.emptyStack;
+    }
+
+    /**
+     * Determines whether or not HuskyUI is replacing non-specified
+     * {@link Element}s with a default {@link ItemStack}.
+     *
+     * @return true if filling empty Elements; false otherwise
+     */
+    public boolean isFillWhenEmpty() {
+        return this.fillWhenEmpty;
+    }
+
+    /**
+     * Determines whether or not HuskyUI is handling paging.
+     *
+     * @return true if HuskyUI is handling paging; false otherwise
+     */
+    public boolean isAutoPaging() {
+        return this.autoPaging;
+    }
+
+    /**
+     * Determines whether or not page turns rewrite the open
+     * inventory instead of opening a new one.
+     *
+     * @return true if paging in place; false otherwise
+     */
+    public boolean isInPlacePaging() {
+        return this.inPlacePaging;
+    }
+
+    /**
+     * Gets the page number currently shown by this Page.
+     *
+     * @return the current page number
+     */
+    public int getCurrentPage() {
+        return this.currentPage;
+    }
+
+    /**
+     * Gets the look of the navigation buttons.
+     *
+     * @return the NavigationStyle of this Page
+     */
+    @Nonnull
+    public NavigationStyle getNavigationStyle() {
+        return this.navigationStyle;
+    }
+
+    /**
+     * Gets the number of rows in the {@link InventoryDimension}.
+     *
+     * @return the number of rows in the InventoryDimension
+     */
+    public int getRows() {
+        return this.rows;
+    }
+    private long ticks = 0;
+
+    /**
+     * The number of times the updater has run since it was scheduled.
+     */
+    private long updates = 0;
+
+    public long getActualTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the number of updates this Page has gone through.
+     *
+     * <p>With an adaptive update rate the interval between updates changes
+     * with the server load, so the updates actually run are counted instead
+     * of dividing the ticks by {@link #getUpdateTickRate()}.</p>
+     *
+     * @return the number of updates
+     */
+    public long getTicks() {
+        if (this.isAdaptiveUpdateRate()) {
+            return this.updates;
+        }
+        return (long)Math.floor(ticks/updateTickRate);
+    }
+
+    public void tickIncrement() {
+        ticks++;
+    }
+
+    @Nonnull
+    public Inventory getPageView() {
+        return getPageView(0);
+    }
+    /**
+     * Generates the {@link Inventory} for this Page.
+     *
+     * @return the Inventory for this Page
+     */
+    @Nonnull
+    public Inventory getPageView(int pagenum) {
+        if(updatable && cachedInventory != null){
+            return cachedInventory;
+        }
+        final long start = System.nanoTime();
+        final Inventory inventory = Inventory.builder()
+                .property("type", new StringProperty("huskui-page"))
+                .property("id", new StringProperty(getId()))
+                .property(InventoryDimension.PROPERTY_NAME, this.inventoryDimension)
+                .of(this.inventoryArchetype)
+                .listener(InteractInventoryEvent.class, event -> {
+                    if(event instanceof InteractInventoryEvent.Close){
+                        if(this.interrupt != null) {
+                            interrupt();
+                        }
+                        this.stopUpdater();
+                        this.cancelLoading();
+                        this.cachedInventory = null;
+                        if (this.hasObserver()) {
+                            HuskyUI.getInstance().getSessionRegistry().closed(this.getObserver(), this);
+                        }
+                        return;
+                    }
+                    if (!(event instanceof InteractInventoryEvent.Open) && !(event instanceof InteractInventoryEvent.Close)) {
+                        event.setCancelled(true);
+                        // While an async action of this player runs, the Page is about to be navigated
+                        // away from: the click is cancelled above and only answered with a chat message.
+                        if (this.hasObserver() && AsyncRunnableAction.rejectIfInFlight(this.getObserver())) {
+                            return;
+                        }
+                        try{
+                            if (event.getCursorTransaction().getDefault().getType() == ItemTypes.AIR) return;
+                        }catch (NoSuchFieldError err){
+                            //old api support
+                            if (event.getCursorTransaction().getDefault().getType() == ItemTypes.NONE) return;
+                        }
+
+                        event.getCursorTransaction().getDefault().toContainer().get(SLOT_NUM).ifPresent(slot -> {
+                            final int num = (int) slot;
+                            if (this.autoPaging) {
+                                if (num == -1) { //close/back
+                                    if(hasParent()) {
+                                        this.openParent();
+                                    }else{
+                                        InventoryUtil.close(this.getObserver());
+                                    }
+                                } else if(num == -2){ // previous page
+                                    this.turnPage(this.currentPage - 1);
+                                } else if(num == -3) { // next page
+                                    this.turnPage(this.currentPage + 1);
+                                }else if (this.elementAt(num) instanceof ActionableElement) {
+                                    ((ActionableElement) this.elementAt(num)).getAction().runAction(new ActionContext(this.getObserver(), this.getId(), getObserver().getOpenInventory().get(), this.getContainer(), this.stateRef));
+                                }
+                            } else {
+                                if (this.elementAt(num) instanceof ActionableElement) {
+                                    ((ActionableElement) this.elementAt(num)).getAction().runAction(new ActionContext(this.getObserver(), this.getId(), getObserver().getOpenInventory().get(), this.getContainer(), this.stateRef));
+                                }
+                            }
+                        });
+                    } else {
+                        event.getCursorTransaction().setCustom(ItemStackSnapshot.NONE);
+                        event.getCursorTransaction().setValid(true);
+                    }
+                })
+                .property(InventoryTitle.PROPERTY_NAME, InventoryTitle.of(this.title))
+                .build(HuskyUI.getInstance());
+
+        final ItemStackSnapshot[] plan = this.getRenderPlan(pagenum);
+        final List<Inventory> slots = Lists.newArrayList();
+        int num = 0;
+        for (final Inventory slot : inventory.slots()) {
+            if (num < plan.length && plan[num] != null) {
+                slot.set(plan[num].createStack());
+            }
+            slots.add(slot);
+            num++;
+        }
+        this.renderedSlots = slots.toArray(new Inventory[0]);
+        this.renderedPlan = plan;
+        this.currentPage = pagenum;
+        this.prefetchAround(pagenum);
+        if (this.asyncContent != null && this.elementSource == null && !this.asyncContentStarted) {
+            this.loadAsyncContent();
+        }
+        if(updatable){
+            this.cachedInventory = inventory;
+            this.stopUpdater(); // re-rendered, the previous inventory is no longer this Page's
+            this.updates = 0;
+            this.updaterHandle = HuskyUI.getInstance().getUpdateScheduler().schedule(new UpdateScheduler.Updater() {
+                @Override
+                public int getInterval() {
+                    return HuskyUI.getInstance().getUpdateScheduler()
+                            .getAdaptiveInterval(Page.this.updateTickRate, Page.this.maxUpdateTickRate);
+                }
+
+                @Override
+                public void update(final long elapsedTicks) {
+                    Page.this.ticks = elapsedTicks;
+                    Page.this.updates++;
+                    Page.this.updateConsumer.accept(Page.this);
+                    Page.this.flushDirtySlots();
+                }
+            }, this.hasObserver() ? this.getObserver().getUniqueId() : null);
+        }
+        HuskyUI.getInstance().getUpdateScheduler().charge(System.nanoTime() - start);
+        return inventory;
+    }
+
+    /**
+     * Starts loading the real {@link Element}s of this Page, swapping
+     * them in on the main thread once they are ready.
+     */
+    private void loadAsyncContent() {
+        this.asyncContentStarted = true;
+        final Player observer = this.getObserver();
+        final HuskyUI plugin = HuskyUI.getInstance();
+        final CompletableFuture<Map<Integer, Element>> load = CompletableFuture
+                .supplyAsync(() -> this.asyncContent.apply(observer), plugin.getAsyncExecutor())
+                .thenCompose(future -> future);
+        this.asyncContentLoad = load;
+        load.whenCompleteAsync((loaded, error) -> {
+            if (this.asyncContentLoad != load || observer == null || !observer.isOnline()) {
+                return; // closed, cancelled or left in the meantime
+            }
+            this.asyncContentLoad = null;
+            if (error != null) {
+                HuskyUI.getLogger().error("Error occurred while loading HuskyUI Page \"" + this.getId() + "\".", error);
+                observer.sendMessage(Text.of(TextColors.RED, "This page failed to load."));
+                this.showLoadedContent(null); // drops the loading layout
+                return;
+            }
+            this.showLoadedContent(loaded);
+        }, plugin.getSyncExecutor());
+    }
+
+    /**
+     * Stops waiting for the real {@link Element}s of this Page, if they
+     * are still loading. Done when the Page is closed, so the load is
+     * started again if it is reopened.
+     */
+    public void cancelLoading() {
+        final CompletableFuture<Map<Integer, Element>> load = this.asyncContentLoad;
+        if (load == null) {
+            return;
+        }
+        this.asyncContentLoad = null;
+        this.asyncContentStarted = false;
+        load.cancel(false);
+    }
+
+    /**
+     * Determines whether or not the real {@link Element}s of this Page are still loading.
+     *
+     * @return true if loading; false otherwise
+     */
+    public boolean isLoading() {
+        return this.asyncContentLoad != null;
+    }
+
+    /**
+     * Replaces the loading layout with the loaded {@link Element}s.
+     *
+     * @param loaded the loaded Elements, sorted by their key
+     */
+    private void showLoadedContent(@Nullable final Map<Integer, Element> loaded) {
+        final long start = System.nanoTime();
+        this.elements = (loaded != null) ? Maps.newHashMap(loaded) : Maps.newHashMap();
+        this.ownsElements = true;
+        this.boundKeys = null;
+        this.dirtyElements.clear();
+        this.ownRenderPlan(this.compileRenderPlan());
+        this.showPage(Math.min(this.currentPage, this.getPageCount() - 1));
+        HuskyUI.getInstance().getUpdateScheduler().charge(System.nanoTime() - start);
+    }
+
+    /**
+     * Restarts what closing this Page stopped, when its inventory is
+     * reopened as it was left instead of being rendered again.
+     *
+     * <p>Elements changed since are written right away, content that was
+     * still loading is loaded again, and the pages next to the one shown
+     * are prefetched again.</p>
+     */
+    public void resume() {
+        this.flushDirtySlots();
+        if (this.asyncContent != null && this.elementSource == null && !this.asyncContentStarted) {
+            this.loadAsyncContent();
+        }
+        this.prefetchAround(this.currentPage);
+    }
+
+    /**
+     * Changes the {@link Element} under a key after this Page was built.
+     *
+     * <p>The key is the same one used by {@link PageBuilder#putElement(int, Element)}.
+     * Only the changed slots are sent to the inventory, at most once per tick:
+     * updatable Pages flush after their updater runs, other Pages on the next tick.</p>
+     *
+     * @param index the key of the Element to change
+     * @param element the new Element, or null to remove it
+     */
+    public void setElement(final int index, @Nullable final Element element) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Element keys cannot be negative.");
+        }
+        if (this.elementSource != null) {
+            throw new IllegalStateException("Elements of a Page backed by an ElementSource come from that source.");
+        }
+        if (this.sealed) {
+            throw new IllegalStateException("This Page is sealed; change a view of it instead.");
+        }
+        if (!this.ownsElements) {
+            this.elements = Maps.newHashMap(this.elements);
+            this.ownsElements = true;
+        }
+        this.boundKeys = null;
+        if (element == null) {
+            this.elements.remove(index);
+        } else {
+            this.elements.put(index, element);
+        }
+        this.dirtyElements.set(index);
+        if (this.updaterHandle == null && !this.flushScheduled) {
+            this.flushScheduled = true;
+            Task.builder().execute(this::flushDirtySlots).submit(HuskyUI.getInstance());
+        }
+    }
+
+    /**
+     * Writes every {@link Element} changed through {@link #setElement(int, Element)}
+     * into the render plan, and into the inventory if it is on the page being shown.
+     */
+    public void flushDirtySlots() {
+        this.flushScheduled = false;
+        if (this.dirtyElements.isEmpty()) {
+            return;
+        }
+        final long start = System.nanoTime();
+        this.writeDirtySlots();
+        HuskyUI.getInstance().getUpdateScheduler().charge(System.nanoTime() - start);
+    }
+
+    private void writeDirtySlots() {
+        if (this.renderPlan == null || (this.autoPaging && this.renderPlan.length != this.getPageCount())) {
+            // The number of pages changed, so navigation buttons may have moved too.
+            this.ownRenderPlan(this.compileRenderPlan());
+            this.dirtyElements.clear();
+            this.showPage(this.currentPage);
+            return;
+        }
+        final int maxSize = this.getPageSize();
+        for (int index = this.dirtyElements.nextSetBit(0); index >= 0; index = this.dirtyElements.nextSetBit(index + 1)) {
+            final int num = this.writePlanSlot(index);
+            final int pagenum = (this.autoPaging) ? index / maxSize : 0;
+            if (num >= 0 && pagenum == this.currentPage && this.renderedSlots != null && num < this.renderedSlots.length) {
+                final ItemStackSnapshot snapshot = this.renderPlan[pagenum][num];
+                if (snapshot == null) {
+                    this.renderedSlots[num].clear();
+                } else {
+                    this.renderedSlots[num].set(snapshot.createStack());
+                }
+            }
+        }
+        this.dirtyElements.clear();
+        if (this.renderedPlan != null) {
+            this.renderedPlan = this.getRenderPlan(this.currentPage);
+        }
+    }
+
+    /**
+     * Writes the {@link Element} under a key into the render plan,
+     * copying the page it lies on first if that page is still shared.
+     *
+     * @param index the key of the Element
+     * @return the slot written, or -1 if the key lies on no page
+     */
+    private int writePlanSlot(final int index) {
+        this.unboundKeys.clear(index);
+        final int maxSize = this.getPageSize();
+        final int pagenum = (this.autoPaging) ? index / maxSize : 0;
+        final int num = (this.autoPaging) ? index % maxSize : index;
+        if (this.autoPaging && num > (this.rows * 9) - 1) {
+            return -1;
+        }
+        if (pagenum >= this.renderPlan.length) {
+            // Keys can be sparse, so this lies past the last page, which is counted
+            // from the number of Elements; it can't be turned to, so there is nothing to write.
+            return -1;
+        }
+        final Element element = this.elements.get(index);
+        if (num >= this.renderPlan[pagenum].length && element == null) {
+            return -1;
+        }
+        if (!this.ownsRenderPlan) {
+            this.renderPlan = this.renderPlan.clone(); // the pages themselves stay shared until written
+            this.ownsRenderPlan = true;
+            this.ownedPages.clear();
+        }
+        if (num >= this.renderPlan[pagenum].length) {
+            this.renderPlan[pagenum] = Arrays.copyOf(this.renderPlan[pagenum], num + 1);
+            this.ownedPages.set(pagenum);
+        } else if (!this.ownedPages.get(pagenum)) {
+            this.renderPlan[pagenum] = this.renderPlan[pagenum].clone();
+            this.ownedPages.set(pagenum);
+        }
+        this.renderPlan[pagenum][num] = (element == null) ? null : tag(this.itemFor(element), index);
+        return num;
+    }
+
+    /**
+     * Resolves the bound {@link Element}s on a page from the
+     * {@link BindingContext}, unless that page already was.
+     *
+     * @param pagenum the page number
+     */
+    private void resolveBoundSlots(final int pagenum) {
+        if (this.unboundKeys.isEmpty()) {
+            return;
+        }
+        final int from = (this.autoPaging) ? pagenum * this.getPageSize() : 0;
+        final int to = (this.autoPaging) ? from + this.getPageSize() : this.unboundKeys.length();
+        for (int index = this.unboundKeys.nextSetBit(from); index >= 0 && index < to; index = this.unboundKeys.nextSetBit(index + 1)) {
+            this.writePlanSlot(index);
+        }
+        this.unboundKeys.clear(from, to);
+    }
+
+    /**
+     * Takes a freshly compiled render plan as this Page's own.
+     * It is compiled with the {@link BindingContext}, so nothing is left to resolve.
+     *
+     * @param plan the render plan
+     */
+    private void ownRenderPlan(@Nonnull final ItemStackSnapshot[][] plan) {
+        this.renderPlan = plan;
+        this.ownsRenderPlan = true;
+        this.ownedPages.set(0, plan.length);
+        this.unboundKeys.clear();
+    }
+
+    /**
+     * Moves the observer back to the parent of this Page, reopening
+     * the view they came from if it is still cached.
+     */
+    private void openParent() {
+        if (HuskyUI.getInstance().getSessionRegistry().openBack(this.getObserver(), this.getContainer(), this.getParent())) {
+            return;
+        }
+        final StateRef parent = this.getContainer().getParentRef(this);
+        if (parent != null) {
+            this.getContainer().openState(this.getObserver(), parent);
+        } else {
+            this.getContainer().openState(this.getObserver(), this.getParent());
+        }
+    }
+
+    /**
+     * Moves the observer to another page of this Page, either
+     * in place or by opening that page anew.
+     *
+     * @param requested the page number to move to; clamped to the pages there are
+     */
+    private void turnPage(final int requested) {
+        final int pagenum = Math.max(0, Math.min(requested, this.getPageCount() - 1));
+        if (!this.inPlacePaging || this.renderedSlots == null) {
+            if (this.stateRef != null) {
+                this.getContainer().openState(this.getObserver(), this.stateRef.atPage(pagenum));
+            } else {
+                this.getContainer().openState(this.getObserver(), this.getId() + "#" + pagenum);
+            }
+            return;
+        }
+        // The click is still being processed, and cancelling it restores the clicked slot.
+        Task.builder().execute(() -> {
+            final long start = System.nanoTime();
+            this.showPage(pagenum);
+            HuskyUI.getInstance().getUpdateScheduler().charge(System.nanoTime() - start);
+        }).submit(HuskyUI.getInstance());
+    }
+
+    /**
+     * Rewrites the already rendered inventory to show another page.
+     *
+     * <p>Only slots whose compiled contents differ between the two
+     * pages are written.</p>
+     *
+     * @param pagenum the page number to show
+     */
+    private void showPage(final int pagenum) {
+        if (this.renderedSlots == null || this.renderedPlan == null) {
+            return;
+        }
+        final ItemStackSnapshot[] plan = this.getRenderPlan(pagenum);
+        for (int num = 0; num < this.renderedSlots.length; num++) {
+            final ItemStackSnapshot next = (num < plan.length) ? plan[num] : null;
+            final ItemStackSnapshot shown = (num < this.renderedPlan.length) ? this.renderedPlan[num] : null;
+            if (next == shown) {
+                continue;
+            }
+            if (next == null) {
+                this.renderedSlots[num].clear();
+            } else {
+                this.renderedSlots[num].set(next.createStack());
+            }
+        }
+        this.renderedPlan = plan;
+        this.currentPage = pagenum;
+        this.prefetchAround(pagenum);
+    }
+
+    /**
+     * Compiles the pages on either side of the one shown ahead of time,
+     * one per tick, and hands them to the observer's session so turning
+     * to them needs no fetching or compiling. Ticks on which the
+     * {@link UpdateScheduler} has no budget left are skipped.
+     *
+     * <p>Only Pages backed by an {@link ElementSource} compile pages on
+     * demand; all other Pages are already compiled in full.</p>
+     *
+     * @param pagenum the page number now shown
+     */
+    private void prefetchAround(final int pagenum) {
+        if (!this.prefetch || this.elementSource == null || !this.autoPaging || !this.hasObserver()) {
+            return;
+        }
+        final int pageCount = this.getPageCount();
+        final List<Integer> pages = Lists.newArrayList();
+        if (pagenum + 1 < pageCount) {
+            pages.add(pagenum + 1);
+        }
+        if (pagenum - 1 >= 0) {
+            pages.add(pagenum - 1);
+        }
+        this.prefetchNext(pages, pagenum);
     }
 
-    public boolean isUpdatable() {
-        return updatable;
+    private void prefetchNext(@Nonnull final List<Integer> pages, final int shown) {
+        if (pages.isEmpty()) {
+            return;
+        }
+        Task.builder().execute(() -> {
+            final Player observer = this.getObserver();
+            final SessionRegistry sessions = HuskyUI.getInstance().getSessionRegistry();
+            if (!observer.isOnline() || this.currentPage != shown || !sessions.isCurrent(observer, this)) {
+                return; // moved on already
+            }
+            if (!HuskyUI.getInstance().getUpdateScheduler().hasBudgetLeft()) {
+                this.prefetchNext(pages, shown); // this tick is busy enough, try the next one
+                return;
+            }
+            final int pagenum = pages.remove(0);
+            if (!sessions.hasPrefetched(observer, this.getDefinition(), pagenum)) {
+                final long start = System.nanoTime();
+                final Map<Integer, Element> window = Maps.newHashMap();
+                final ItemStackSnapshot[] plan = this.fetchSourcePage(pagenum, window);
+                sessions.storePrefetched(observer, this.getDefinition(), pagenum,
+                        new PlayerSession.PrefetchedPage(plan, window, sessions.getCurrentTick()));
+                HuskyUI.getInstance().getUpdateScheduler().charge(System.nanoTime() - start);
+            }
+            this.prefetchNext(pages, shown);
+        }).delayTicks(1).submit(HuskyUI.getInstance());
     }
 
     /**
-     * Gets the {@link ItemStack}s in use by this Page.
+     * Gets the number of {@link Element}s shown on each page
+     * when {@link #autoPaging} is enabled.
      *
-     * @return the ItemSTacks in use by this Page
+     * @return the number of Elements per page
      */
-    @Nonnull
-    public Map<Integer, Element> getElements() {
-        return this.elements;
+    public int getPageSize() {
+        return Math.max(1,(this.inventoryDimension.getColumns() * (this.inventoryDimension.getRows()-1)));
     }
 
     /**
-     * Gets the virtual inventory this Page represents.
+     * Gets the number of pages this Page spans.
      *
-     * @return the virtual inventory this Page represents
+     * @return the number of pages; always 1 without auto paging
      */
-    @Nonnull
-    public InventoryDimension getInventoryDimension() {
-        return this.inventoryDimension;
+    public int getPageCount() {
+        if (!this.autoPaging) {
+            return 1;
+        }
+        final int count = (this.elementSource != null) ? this.elementSource.size() : this.elements.size();
+        return Math.max(1, (count + this.getPageSize() - 1) / this.getPageSize());
     }
 
     /**
-     * Gets the title of the chest this Page uses.
+     * Gets the compiled contents of a page, compiling every page
+     * on first use if the Page was not built with them.
      *
-     * @return the title of the chest
+     * @param pagenum the page number
+     * @return the pre-tagged contents of every slot; null slots are skipped
      */
     @Nonnull
-    public Text getTitle() {
-        return this.title;
+    private ItemStackSnapshot[] getRenderPlan(final int pagenum) {
+        if (this.elementSource != null) {
+            return this.compileSourcePage(pagenum);
+        }
+        if (this.renderPlan == null) {
+            this.ownRenderPlan(this.compileRenderPlan());
+        }
+        if (!this.autoPaging) {
+            this.resolveBoundSlots(0);
+            return this.renderPlan[0];
+        }
+        if (pagenum < 0 || pagenum >= this.renderPlan.length) {
+            return this.compilePage(pagenum);
+        }
+        this.resolveBoundSlots(pagenum);
+        return this.renderPlan[pagenum];
     }
 
     /**
-     * Gets the {@link ItemStack} to use when an {@link Element}
-     * hasn't been given.
+     * Compiles the contents of every page of this Page.
      *
-     * @return the default ItemStack
+     * @return the render plan, indexed by page number and then slot
      */
     @Nonnull
-    public ItemStack getEmptyStack() {
-        return this.emptyStack;
+    private ItemStackSnapshot[][] compileRenderPlan() {
+        final int pageCount = this.getPageCount();
+        final ItemStackSnapshot[][] plan = new ItemStackSnapshot[pageCount][];
+        for (int pagenum = 0; pagenum < pageCount; pagenum++) {
+            plan[pagenum] = this.compilePage(pagenum);
+        }
+        return plan;
     }
 
     /**
-     * Determines whether or not HuskyUI is replacing non-specified
-     * {@link Element}s with a default {@link ItemStack}.
+     * Fetches the {@link Element}s visible on a page from the
+     * {@link ElementSource} and compiles only that page.
      *
-     * @return true if filling empty Elements; false otherwise
+     * @param pagenum the page number
+     * @return the pre-tagged contents of every slot; null slots are skipped
      */
-    public boolean isFillWhenEmpty() {
-        return this.fillWhenEmpty;
+    @Nonnull
+    private ItemStackSnapshot[] compileSourcePage(final int pagenum) {
+        if (this.prefetch && this.hasObserver()) {
+            final Optional<PlayerSession.PrefetchedPage> prefetched = HuskyUI.getInstance().getSessionRegistry()
+                    .takePrefetched(this.getObserver(), this.getDefinition(), pagenum);
+            if (prefetched.isPresent()) {
+                this.sourceWindow.clear();
+                this.sourceWindow.putAll(prefetched.get().getElements());
+                return prefetched.get().getPlan();
+            }
+        }
+        this.sourceWindow.clear();
+        return this.fetchSourcePage(pagenum, this.sourceWindow);
     }
 
     /**
-     * Determines whether or not HuskyUI is handling paging.
+     * Fetches the {@link Element}s visible on a page from the
+     * {@link ElementSource} and compiles that page.
      *
-     * @return true if HuskyUI is handling paging; false otherwise
+     * @param pagenum the page number
+     * @param window the map to put the fetched Elements into, by their key
+     * @return the pre-tagged contents of every slot; null slots are skipped
      */
-    public boolean isAutoPaging() {
-        return this.autoPaging;
+    @Nonnull
+    private ItemStackSnapshot[] fetchSourcePage(final int pagenum, @Nonnull final Map<Integer, Element> window) {
+        final int offset;
+        final int count;
+        if (this.autoPaging) {
+            offset = pagenum * this.getPageSize();
+            count = Math.min(this.getPageSize(), this.rows * 9);
+        } else {
+            offset = 0;
+            count = this.inventoryDimension.getColumns() * this.inventoryDimension.getRows();
+        }
+        if (offset >= 0) {
+            final List<Element> fetched = this.elementSource.fetch(offset, count);
+            for (int i = 0; i < fetched.size() && i < count; i++) {
+                if (fetched.get(i) != null) {
+                    window.put(offset + i, fetched.get(i));
+                }
+            }
+        }
+        return this.compilePage(pagenum, window);
     }
 
     /**
-     * Gets the number of rows in the {@link InventoryDimension}.
+     * Compiles the contents of a single page.
      *
-     * @return the number of rows in the InventoryDimension
+     * @param pagenum the page number
+     * @return the pre-tagged contents of every slot; null slots are skipped
      */
-    public int getRows() {
-        return this.rows;
-    }
-    private long ticks = 0;
-
-    public long getActualTicks() {
-        return ticks;
-    }
-
-    public long getTicks() {
-        return (long)Math.floor(ticks/updateTickRate);
-    }
-
-    public void tickIncrement() {
-        ticks++;
-    }
-
     @Nonnull
-    public Inventory getPageView() {
-        return getPageView(0);
+    private ItemStackSnapshot[] compilePage(final int pagenum) {
+        return this.compilePage(pagenum, this.elements);
     }
+
     /**
-     * Generates the {@link Inventory} for this Page.
+     * Compiles the contents of a single page.
      *
-     * @return the Inventory for this Page
+     * @param pagenum the page number
+     * @param elements the Elements to compile from, sorted by their key
+     * @return the pre-tagged contents of every slot; null slots are skipped
      */
     @Nonnull
-    public Inventory getPageView(int pagenum) {
-        if(updatable && cachedInventory != null){
-            return cachedInventory;
-        }
-        int maxSize = Math.max(1,(this.inventoryDimension.getColumns() * (this.inventoryDimension.getRows()-1)));
-        int pageCount = (this.elements.size() / maxSize) + 1;
-        final Inventory inventory = Inventory.builder()
-                .property("type", new StringProperty("huskui-page"))
-                .property("id", new StringProperty(getId()))
-                .property(InventoryDimension.PROPERTY_NAME, this.inventoryDimension)
-                .of(this.inventoryArchetype)
-                .listener(InteractInventoryEvent.class, event -> {
-                    if(event instanceof InteractInventoryEvent.Close){
-                        if(this.interrupt != null) {
-                            interrupt();
-                        }
-                        return;
-                    }
-                    if (!(event instanceof InteractInventoryEvent.Open) && !(event instanceof InteractInventoryEvent.Close)) {
-                        event.setCancelled(true);
-                        try{
-                            if (event.getCursorTransaction().getDefault().getType() == ItemTypes.AIR) return;
-                        }catch (NoSuchFieldError err){
-                            //old api support
-                            if (event.getCursorTransaction().getDefault().getType() == ItemTypes.NONE) return;
-                        }
-
-                        event.getCursorTransaction().getDefault().toContainer().get(DataQuery.of("UnsafeData", "slotnum")).ifPresent(slot -> {
-                            final int num = (int) slot;
-                            if (this.autoPaging) {
-                                if (num == -1) { //close/back
-                                    if(hasParent()) {
-                                        this.getContainer().openState(this.getObserver(), this.getParent());
-                                    }else{
-                                        InventoryUtil.close(this.getObserver());
-                                    }
-                                } else if(num == -2){ // previous page
-                                    this.getContainer().openState(this.getObserver(), this.getId() + "#" + (pagenum-1));
-                                } else if(num == -3) { // next page
-                                    this.getContainer().openState(this.getObserver(), this.getId() + "#" + (pagenum+1));
-                                }else if (this.elements.get(num) instanceof ActionableElement) {
-                                    ((ActionableElement) this.elements.get(num)).getAction().runAction(this.getId(),getObserver().getOpenInventory().get());
-                                }
-                            } else {
-                                if (this.elements.get(num) instanceof ActionableElement) {
-                                    ((ActionableElement) this.elements.get(num)).getAction().runAction(this.getId(),getObserver().getOpenInventory().get());
-                                }
-                            }
-                        });
-                    } else {
-                        event.getCursorTransaction().setCustom(ItemStackSnapshot.NONE);
-                        event.getCursorTransaction().setValid(true);
-                    }
-                })
-                .property(InventoryTitle.PROPERTY_NAME, InventoryTitle.of(this.title))
-                .build(HuskyUI.getInstance());
-
-        int num = 0;
-        for (final Inventory slot : inventory.slots()) {
-            if (this.autoPaging) {
-                if(num == (this.rows * 9) && pageCount > 1 && pagenum > 0){
-                    slot.set(ItemStack.builder()
-                            .fromContainer(ItemStack.builder()
-                                    .itemType(ItemTypes.MAP)
-                                    .add(Keys.DISPLAY_NAME, Text.of(TextStyles.RESET, TextColors.WHITE, "Previous"))
-                                    .build()
-                                    .toContainer()
-                                    .set(DataQuery.of("UnsafeData", "slotnum"), -2))
-                            .build());
-                }else if(num == (this.rows * 9) + 8 && pageCount > 1 && pagenum < pageCount-1){
-                    slot.set(ItemStack.builder()
-                            .fromContainer(ItemStack.builder()
-                                    .itemType(ItemTypes.MAP)
-                                    .add(Keys.DISPLAY_NAME, Text.of(TextStyles.RESET, TextColors.WHITE, "Next"))
-                                    .build()
-                                    .toContainer()
-                                    .set(DataQuery.of("UnsafeData", "slotnum"), -3))
-                            .build());
-                }else if (num == (this.rows * 9) + 4) {
-                    slot.set(ItemStack.builder()
-                            .fromContainer(ItemStack.builder()
-                                    .itemType(ItemTypes.BARRIER)
-                                    .add(Keys.DISPLAY_NAME, Text.of(TextStyles.RESET, TextColors.WHITE, (hasParent())?"Back":"Close"))
-                                    .build()
-                                    .toContainer()
-                                    .set(DataQuery.of("UnsafeData", "slotnum"), -1))
-                            .build());
-                } else if (num > (this.rows * 9) - 1) {
-                    slot.set(emptyStack);
-                } else if (this.elements.containsKey(num + (pagenum * maxSize))) {
-                     slot.set(ItemStack.builder()
-                             .fromContainer(this.elements.get(num + (pagenum * maxSize)).getItem()
-                                     .toContainer()
-                                     .set(DataQuery.of("UnsafeData", "slotnum"), num + (pagenum * maxSize)))
-                             .build());
+    private ItemStackSnapshot[] compilePage(final int pagenum, @Nonnull final Map<Integer, Element> elements) {
+        final int capacity = this.inventoryDimension.getColumns() * this.inventoryDimension.getRows();
+        if (!this.autoPaging) { // Standard Situations
+            int length = capacity;
+            for (final int key : elements.keySet()) {
+                length = Math.max(length, key + 1);
+            }
+            final ItemStackSnapshot[] plan = new ItemStackSnapshot[length];
+            for (final Map.Entry<Integer, Element> entry : elements.entrySet()) {
+                if (entry.getKey() >= 0) {
+                    plan[entry.getKey()] = tag(this.itemFor(entry.getValue()), entry.getKey());
                 }
-
-            } else if (elements.containsKey(num)) { // Standard Situations
-                slot.set(ItemStack.builder()
-                        .fromContainer(elements.get(num).getItem().toContainer()
-                                .set(DataQuery.of("UnsafeData", "slotnum"), num))
-                        .build());
             }
+            return plan;
+        }
 
-            num++;
+        final int maxSize = this.getPageSize();
+        final int pageCount = this.getPageCount();
+        final ItemStackSnapshot[] plan = new ItemStackSnapshot[capacity];
+        if (this.emptySnapshot == null) {
+            this.emptySnapshot = this.emptyStack.createSnapshot();
         }
-        if(updatable){
-            this.cachedInventory = inventory;
-            this.updaterTask = Task.builder().intervalTicks(1).execute(() -> {
-                if(this.getActualTicks() % this.getUpdateTickRate() == 0) {
-                    this.updateConsumer.accept(this);
-                }
-                this.tickIncrement();
-            }).submit(HuskyUI.getInstance());
+        final ItemStackSnapshot empty = this.emptySnapshot;
+        for (int num = 0; num < capacity; num++) {
+            if(num == (this.rows * 9) && pageCount > 1 && pagenum > 0){
+                plan[num] = this.navigationStyle.get(NavigationStyle.Button.PREVIOUS);
+            }else if(num == (this.rows * 9) + 8 && pageCount > 1 && pagenum < pageCount-1){
+                plan[num] = this.navigationStyle.get(NavigationStyle.Button.NEXT);
+            }else if (num == (this.rows * 9) + 4) {
+                plan[num] = this.navigationStyle.get((hasParent()) ? NavigationStyle.Button.BACK : NavigationStyle.Button.CLOSE);
+            } else if (num > (this.rows * 9) - 1) {
+                plan[num] = empty;
+            } else if (elements.containsKey(num + (pagenum * maxSize))) {
+                plan[num] = tag(this.itemFor(elements.get(num + (pagenum * maxSize))), num + (pagenum * maxSize));
+            }
         }
-        return inventory;
+        return plan;
+    }
+
+    /**
+     * Tags an {@link ItemStack} with the slot number it is rendered for.
+     *
+     * @param stack the ItemStack to tag
+     * @param slotnum the slot number clicks on it should report
+     * @return a tagged snapshot of the ItemStack
+     */
+    @Nonnull
+    static ItemStackSnapshot tag(@Nonnull final ItemStack stack, final int slotnum) {
+        return ItemStack.builder()
+                .fromContainer(stack.toContainer().set(SLOT_NUM, slotnum))
+                .build()
+                .createSnapshot();
     }
 
     /**
      * {@inheritDoc}
      *
-     * <p>Additionally, assigns the {@link Player} to all
-     * {@link Element}s within this Page.</p>
+     * <p>Additionally, assigns the {@link Player} to all {@link Element}s
+     * within this Page, unless it is a view: views share their Elements
+     * with every other viewer, so their Actions get the Player from the
+     * {@link ActionContext} of each run instead.</p>
      *
      * @param observer the Player viewing this State
      */
     @Override
+    @SuppressWarnings("deprecation")
     public void setObserver(final Player observer) {
         if(observer == null) {
             return;
         }
+        if (this.sealed) {
+            throw new IllegalStateException("This Page is sealed; observe a view of it instead.");
+        }
 
         super.setObserver(observer);
+        if (this.definition != null) {
+            return; // Actions are shared, and get their observer from the ActionContext
+        }
 
         for(final Element e : elements.values()){
             if(e instanceof ActionableElement){
@@ -417,8 +1523,43 @@ public class Page extends State {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A sealed Page stays with the container that sealed it.</p>
+     *
+     * @param container the StateContainer responsible for this State
+     */
+    @Override
+    public void setContainer(@Nonnull final StateContainer container) {
+        if (this.sealed && container != this.getContainer()) {
+            throw new IllegalStateException("This Page is sealed; copy its container to use it elsewhere.");
+        }
+        super.setContainer(container);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The Back/Close button depends on whether a parent exists,
+     * so gaining one drops the compiled render plan.</p>
+     *
+     * @param parent the ID of the parent to this State
+     */
+    @Override
+    public void setParent(final String parent) {
+        if (this.sealed) {
+            throw new IllegalStateException("This Page is sealed; its parent can no longer change.");
+        }
+        final boolean hadParent = this.hasParent();
+        super.setParent(parent);
+        if (hadParent != this.hasParent()) {
+            this.renderPlan = null;
+        }
+    }
+
     public void interrupt(){
-        //System.out.println("-++-\nINTERRUPT\nInterrupt Is Null: " + (this.interrupt == null) + "\nUpdater Task Is Null: " + (this.updaterTask == null));
+        //System.out.println("-++-\nINTERRUPT\nInterrupt Is Null: " + (this.interrupt == null) + "\nUpdater Task Is Null: " + (this.updaterHandle == null));
         if(hasInterupt()) {
             try {
                 this.interrupt.run();
@@ -432,17 +1573,22 @@ public class Page extends State {
         }else{
             throw new RuntimeException("Interrupt either doen't exist, or has been called already");
         }
-        if(updaterTask != null) {
-            updaterTask.cancel();
-            //System.out.println("Updater cancelled");
-            updaterTask = null;
-            //System.out.println("Updater set to null.");
-        }
+        this.stopUpdater();
         if(hasObserver()){
             getObserver().closeInventory();
         }
     }
 
+    /**
+     * Stops the updater of this Page, if it is running.
+     */
+    private void stopUpdater() {
+        if (this.updaterHandle != null) {
+            HuskyUI.getInstance().getUpdateScheduler().cancel(this.updaterHandle);
+            this.updaterHandle = null;
+        }
+    }
+
     public boolean hasInterupt() {
         return this.interrupt != null;
     }
@@ -471,10 +1617,23 @@ public class Page extends State {
         builder.setFillWhenEmpty(this.fillWhenEmpty);
         builder.setAutoPaging(this.autoPaging);
         builder.setCentered(this.centered);
+        builder.setInPlacePaging(this.inPlacePaging);
+        builder.setElementSource(this.elementSource);
+        builder.setAsyncContent(this.asyncContent);
+        builder.setPrefetch(this.prefetch);
         builder.setUpdateTickRate(updateTickRate);
+        builder.maxUpdateTickRate = this.maxUpdateTickRate;
         builder.setUpdater(updateConsumer);
         builder.setInterrupt(interrupt);
         builder.setUpdatable(updatable);
+        builder.setParent(this.getParent());
+        builder.setNavigationStyle(this.navigationStyle);
+        if (this.bindingContext == null) {
+            builder.renderPlan = this.renderPlan; // Snapshots are immutable, and the layout is the same.
+            if (this.ownsRenderPlan) {
+                this.ownsRenderPlan = false;
+            }
+        }
 
         final Page page = builder.build(this.getId());
 
@@ -547,6 +1706,12 @@ public class Page extends State {
          */
         private boolean centered;
 
+        /**
+         * Whether or not moving between pages rewrites the slots of
+         * the open inventory, instead of opening a new one.
+         */
+        private boolean inPlacePaging;
+
         /**
          * Defines if the current page should be checked for updates.
          */
@@ -559,6 +1724,12 @@ public class Page extends State {
          */
         private int updateTickRate;
 
+        /**
+         * How often the updater should be fired at most while the
+         * server is under load. Defaults to the update tick rate.
+         */
+        private int maxUpdateTickRate;
+
         private Consumer<Page> updaterConsumer;
 
         private Runnable interrupt;
@@ -566,6 +1737,35 @@ public class Page extends State {
         @Nullable
         private String parent;
 
+        /**
+         * The look of the navigation buttons.
+         */
+        @Nonnull
+        private NavigationStyle navigationStyle;
+
+        /**
+         * Supplies the Elements on demand, if set.
+         */
+        @Nullable
+        private ElementSource elementSource;
+
+        /**
+         * Loads the real Elements off of the main thread, if set.
+         */
+        @Nullable
+        private Function<Player, CompletableFuture<Map<Integer, Element>>> asyncContent;
+
+        /**
+         * Whether or not to compile the pages next to the one shown ahead of time.
+         */
+        private boolean prefetch;
+
+        /**
+         * An already compiled render plan to reuse, set when copying a Page.
+         */
+        @Nullable
+        private ItemStackSnapshot[][] renderPlan;
+
         /**
          * Constructs a new {@link PageBuilder}, currently only
          * accessible via {@link Page#builder()}.
@@ -577,13 +1777,16 @@ public class Page extends State {
             this.emptyStack = Page.defaultEmptyStack;
             this.fillWhenEmpty = false;
             this.autoPaging = false;
+            this.inPlacePaging = false;
             this.centered = true;
             this.updatable = false;
             this.updateTickRate = 1;
+            this.maxUpdateTickRate = 1;
             this.updaterConsumer = null;
             this.interrupt = null;
             this.parent = null;
             this.inventoryArchetype = InventoryArchetypes.CHEST;
+            this.navigationStyle = NavigationStyle.getDefault();
         }
 
         /**
@@ -611,6 +1814,57 @@ public class Page extends State {
             return this;
         }
 
+        /**
+         * Sets whether or not the pages on either side of the one shown
+         * are compiled ahead of time, one per tick after it is shown, so
+         * turning to them is a plain swap. Only has an effect on auto-paged
+         * Pages backed by an {@link ElementSource}; how many pages each
+         * player may have prefetched is capped by the
+         * {@link SessionRegistry#setPrefetchLimit(int) SessionRegistry}.
+         *
+         * @param prefetch whether or not to prefetch adjacent pages
+         * @return this PageBuilder
+         */
+        @Nonnull
+        public PageBuilder setPrefetch(final boolean prefetch) {
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        /**
+         * Sets an {@link ElementSource} to supply the {@link Element}s of
+         * this Page on demand. Only the Elements visible on the page being
+         * rendered are fetched, so the list may be as large as needed.
+         *
+         * <p>When set, Elements put into this builder are ignored.</p>
+         *
+         * @param elementSource the ElementSource to be used
+         * @return this PageBuilder
+         */
+        @Nonnull
+        public PageBuilder setElementSource(@Nullable final ElementSource elementSource) {
+            this.elementSource = elementSource;
+            return this;
+        }
+
+        /**
+         * Sets a loader for the {@link Element}s of this Page, for content
+         * that is slow to get, such as the results of a database query.
+         *
+         * <p>The loader is called off of the main thread for the Player
+         * opening the Page, which opens right away showing the Elements put
+         * into this builder as a loading layout. Once the returned future
+         * completes, its Elements replace them on the main thread.</p>
+         *
+         * @param asyncContent the loader of the real Elements
+         * @return this PageBuilder
+         */
+        @Nonnull
+        public PageBuilder setAsyncContent(@Nullable final Function<Player, CompletableFuture<Map<Integer, Element>>> asyncContent) {
+            this.asyncContent = asyncContent;
+            return this;
+        }
+
         /**
          * Sets the {@link InventoryDimension} to be used by this Page.
          *
@@ -685,6 +1939,20 @@ public class Page extends State {
             return this;
         }
 
+        /**
+         * Sets whether or not moving between pages should rewrite the
+         * open inventory instead of opening a new one. This avoids the
+         * client closing and reopening the window on every page turn.
+         *
+         * @param inPlacePaging whether or not to turn pages in place
+         * @return this PageBuilder
+         */
+        @Nonnull
+        public PageBuilder setInPlacePaging(final boolean inPlacePaging) {
+            this.inPlacePaging = inPlacePaging;
+            return this;
+        }
+
         /**
          * Sets whether or not {@link ItemStack}s should be centered.
          *
@@ -706,6 +1974,29 @@ public class Page extends State {
         @Nonnull
         public PageBuilder setUpdateTickRate(final int updateTickRate){
             this.updateTickRate = updateTickRate;
+            this.maxUpdateTickRate = updateTickRate;
+            return this;
+        }
+
+        /**
+         * Lets the updater fire less often while the server is under load,
+         * stretching its interval as TPS drops or ticks take longer, and
+         * restoring it as the server recovers.
+         *
+         * <p>Meant for cosmetic updates, such as animations and countdowns,
+         * that may be shed during lag spikes.</p>
+         *
+         * @param minTickRate the ticks between updates while the server keeps up
+         * @param maxTickRate the ticks between updates while the server is fully loaded
+         * @return this PageBuilder
+         */
+        @Nonnull
+        public PageBuilder setAdaptiveUpdateTickRate(final int minTickRate, final int maxTickRate){
+            if (minTickRate < 1 || maxTickRate < minTickRate) {
+                throw new IllegalArgumentException("Update tick rates must be at least 1, and the maximum no less than the minimum.");
+            }
+            this.updateTickRate = minTickRate;
+            this.maxUpdateTickRate = maxTickRate;
             return this;
         }
 
@@ -715,6 +2006,20 @@ public class Page extends State {
             return this;
         }
 
+        /**
+         * Sets the look of the navigation buttons used when auto paging.
+         *
+         * <p>If unset, this will default to {@link NavigationStyle#getDefault()}.</p>
+         *
+         * @param navigationStyle the NavigationStyle to use
+         * @return this PageBuilder
+         */
+        @Nonnull
+        public PageBuilder setNavigationStyle(@Nonnull final NavigationStyle navigationStyle) {
+            this.navigationStyle = navigationStyle;
+            return this;
+        }
+
         @Nonnull
         public PageBuilder setInterrupt(final Runnable interrupt){
             this.interrupt = interrupt;
@@ -728,13 +2033,14 @@ public class Page extends State {
          * @return a new Page
          */
         public Page build(@Nonnull final String id) {
-            final int rows = (this.inventoryDimension == null) ? Math.min(5,(int) Math.ceil(((double) this.elements.size()) / 9d)) : this.inventoryDimension.getRows()-1;
+            final int count = (this.elementSource != null) ? this.elementSource.size() : this.elements.size();
+            final int rows = (this.inventoryDimension == null) ? Math.min(5,(int) Math.ceil(((double) count) / 9d)) : this.inventoryDimension.getRows()-1;
             InventoryDimension real = (this.inventoryDimension == null ?
                     (this.autoPaging) ?
                             InventoryDimension.of(9, rows + 1) :
                             InventoryDimension.of(9,4)
                     : this.inventoryDimension);
-            return new Page(id,
+            final Page page = new Page(id,
                     this.elements,
                     real,
                     this.inventoryArchetype,
@@ -748,8 +2054,23 @@ public class Page extends State {
                     this.autoPaging,
                     this.centered,
                     rows,
-                    parent
+                    parent,
+                    this.navigationStyle,
+                    this.inPlacePaging
             );
+            page.maxUpdateTickRate = Math.max(this.updateTickRate, this.maxUpdateTickRate);
+            page.elementSource = this.elementSource;
+            page.asyncContent = this.asyncContent;
+            page.prefetch = this.prefetch;
+            if (this.elementSource != null) {
+                return page; // compiled per page as it is shown
+            }
+            if (this.renderPlan != null) {
+                page.renderPlan = this.renderPlan;
+            } else {
+                page.ownRenderPlan(page.compileRenderPlan());
+            }
+            return page;
         }
     }
 }
@@ -18,8 +18,10 @@
 package com.codehusky.huskyui.states;
 
 import com.codehusky.huskyui.StateContainer;
+import com.codehusky.huskyui.StateRef;
 import org.spongepowered.api.entity.living.player.Player;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * A State in the GUI process. Typically extended by {@link Page}.
@@ -106,6 +108,21 @@ public class State {
         this.parent = parent;
     }
 
+    /**
+     * Gets the parent of this State, as resolved by the
+     * {@link StateContainer} responsible for it.
+     *
+     * <p>States may be shared by several containers, so the resolved
+     * parent is kept by each container instead of by the State; see
+     * {@link StateContainer#getParentRef(State)}.</p>
+     *
+     * @return the StateRef of the parent, or null if not resolved
+     */
+    @Nullable
+    public StateRef getParentRef() {
+        return (this.container == null) ? null : this.container.getParentRef(this);
+    }
+
     /**
      * Gets the {@link StateContainer} responsible for this State.
      *
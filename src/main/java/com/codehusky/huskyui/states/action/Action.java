@@ -17,9 +17,14 @@
 
 package com.codehusky.huskyui.states.action;
 
+import com.codehusky.huskyui.HuskyUI;
 import com.codehusky.huskyui.InventoryUtil;
+import com.codehusky.huskyui.PlayerSession;
 import com.codehusky.huskyui.StateContainer;
+import com.codehusky.huskyui.StateRef;
 import com.codehusky.huskyui.states.Page;
+import com.codehusky.huskyui.states.State;
+import com.google.common.collect.Maps;
 import org.spongepowered.api.effect.sound.SoundTypes;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.item.inventory.Inventory;
@@ -27,6 +32,8 @@ import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.format.TextColors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -34,9 +41,16 @@ import java.util.function.Consumer;
  * of a user within a GUI.
  * @see CommandAction
  * @see com.codehusky.huskyui.states.action.runnable.RunnableAction
+ * @see com.codehusky.huskyui.states.action.runnable.AsyncRunnableAction
  */
 public class Action {
 
+    /**
+     * Whether or not each subclass of Action overrides the deprecated
+     * {@link #runAction(String, Inventory)}, sorted by the subclass.
+     */
+    @Nonnull private static final Map<Class<?>, Boolean> legacyOverrides = Maps.newConcurrentMap();
+
     /**
      * The {@link StateContainer} that is responsible for this Action.
      */
@@ -48,6 +62,12 @@ public class Action {
      */
     private Player observer = null;
 
+    /**
+     * The run being handed to an override of {@link #runAction(String, Inventory)},
+     * if one is in progress.
+     */
+    @Nullable private ActionContext legacyRun = null;
+
     /**
      * The type of Action taking place.
      */
@@ -88,8 +108,16 @@ public class Action {
     /**
      * The {@link Player} that is observing this Action.
      *
-     * @return the Player observing this Action
+     * <p>Actions are shared by every viewer of a Page, so HuskyUI no longer
+     * sets an observer on them: this returns null for Actions of opened Pages,
+     * and for hotbar Actions, unless one was set by hand. The one exception is
+     * while an override of {@link #runAction(String, Inventory)} is being run,
+     * during which this returns the Player it is run for.</p>
+     *
+     * @return the Player observing this Action, or null
+     * @deprecated use {@link ActionContext#getObserver()} of the run being performed instead
      */
+    @Deprecated
     public Player getObserver() {
         return this.observer;
     }
@@ -98,7 +126,9 @@ public class Action {
      * Sets the {@link Player} that is observing this Action
      *
      * @param observer the Player that is observing this Action
+     * @deprecated the observer of a run is carried by its {@link ActionContext}
      */
+    @Deprecated
     public void setObserver(Player observer) {
         this.observer = observer;
     }
@@ -125,45 +155,144 @@ public class Action {
     }
 
     /**
-     * Performs this Action.
+     * Gets the goal {@link State} of this Action, as resolved
+     * by the {@link StateContainer} responsible for it.
+     *
+     * <p>Actions may be shared by several containers, so the resolved
+     * goal is kept by each container instead of by the Action; see
+     * {@link StateContainer#getGoalRef(Action)}.</p>
+     *
+     * @return the StateRef of the goal, or null if not resolved
+     */
+    @Nullable
+    public StateRef getGoalRef() {
+        return this.container.getGoalRef(this);
+    }
+
+    /**
+     * Performs this Action for the {@link Player} set as its observer.
+     *
+     * <p>Subclasses that still override this keep working: HuskyUI runs
+     * them through {@link #runAction(ActionContext)}, which calls this
+     * override with {@link #getObserver()} set to the Player of the run.</p>
      *
      * @param currentState the current State before the Action is performed
+     * @param inventory the Inventory the Action was triggered from, if any
+     * @deprecated override {@link #runAction(ActionContext)} instead
      */
+    @Deprecated
     public void runAction(@Nonnull final String currentState, final Inventory inventory) {
+        if (this.legacyRun != null) {
+            this.perform(this.legacyRun); // called back by the override being run
+            return;
+        }
+        this.runAction(new ActionContext(this.observer, currentState, inventory));
+    }
+
+    /**
+     * Performs this Action for the {@link Player} held by the context.
+     *
+     * <p>The Action itself is left untouched, so this may be
+     * called on a shared Action without copying it first. Subclasses
+     * overriding the deprecated {@link #runAction(String, Inventory)}
+     * are the exception: their observer is set for as long as that
+     * override runs, which is only ever on the main thread.</p>
+     *
+     * @param context the details of this run of the Action
+     */
+    public void runAction(@Nonnull final ActionContext context) {
+        if (this.legacyRun == null && overridesLegacyRun(this.getClass())) {
+            final Player previous = this.observer;
+            this.observer = context.getObserver();
+            this.legacyRun = context;
+            try {
+                this.runAction(context.getCurrentState(), context.getInventory());
+            } finally {
+                this.legacyRun = null;
+                this.observer = previous;
+            }
+            return;
+        }
+        this.perform(context);
+    }
+
+    /**
+     * Determines whether or not a subclass of Action overrides
+     * the deprecated {@link #runAction(String, Inventory)}.
+     *
+     * @param type the class of the Action
+     * @return true if it does; false otherwise
+     */
+    private static boolean overridesLegacyRun(@Nonnull final Class<? extends Action> type) {
+        return legacyOverrides.computeIfAbsent(type, key -> {
+            try {
+                return key.getMethod("runAction", String.class, Inventory.class).getDeclaringClass() != Action.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        });
+    }
+
+    private void perform(@Nonnull final ActionContext context) {
+        final Player observer = context.getObserver();
+        final String currentState = context.getCurrentState();
+        final StateContainer container = (context.getContainer() != null) ? context.getContainer() : this.container;
         switch (this.type) {
             case CLOSE:
-                InventoryUtil.close(this.observer);
+                InventoryUtil.close(observer);
                 break;
             case BACK:
-                if (this.container.hasState(currentState)) {
-                    if (this.container.getState(currentState).hasParent()) {
-                        this.container.openState(this.observer, this.container.getState(currentState).getParent());
+                final State current = (context.getStateRef() != null) ? context.getStateRef().getState() : container.getRef(currentState).getState();
+                if (current != null) {
+                    if (current.hasParent() && HuskyUI.getInstance().getSessionRegistry().openBack(observer, container, current.getParent())) {
+                        break;
+                    }
+                    final StateRef parent = container.getParentRef(current);
+                    if (parent != null) {
+                        container.openState(observer, parent);
+                    } else if (current.hasParent()) {
+                        container.openState(observer, current.getParent());
                     } else {
-                        this.observer.playSound(SoundTypes.BLOCK_ANVIL_LAND, this.observer.getLocation().getPosition(), 0.5);
-                        InventoryUtil.close(this.observer);
-                        this.observer.sendMessage(Text.of(TextColors.RED, "Impossible BACK action - closing broken State."));
+                        observer.playSound(SoundTypes.BLOCK_ANVIL_LAND, observer.getLocation().getPosition(), 0.5);
+                        InventoryUtil.close(observer);
+                        observer.sendMessage(Text.of(TextColors.RED, "Impossible BACK action - closing broken State."));
                     }
                 }
                 break;
             case NORMAL:
-                this.container.openState(this.observer, this.goalState);
+                final StateRef goal = container.getGoalRef(this);
+                if (goal != null) {
+                    container.openState(observer, goal);
+                } else {
+                    container.openState(observer, this.goalState);
+                }
                 break;
             case NONE:
                 // do nothing
                 break;
             case REFRESH:
-                Page page = ((Page)getContainer().getState(currentState));
+                // The consumer runs on the view the player has open; the State held by the container is shared.
+                final Page page = HuskyUI.getInstance().getSessionRegistry().getSession(observer.getUniqueId())
+                        .map(PlayerSession::getCurrent)
+                        .filter(view -> view.getContainer() == container && view.getRef().getId().equals(currentState))
+                        .map(PlayerSession.View::getPage)
+                        .orElse(null);
+                if (page == null) {
+                    break;
+                }
                 try {
                     Consumer<Page> goo = page.getUpdateConsumer();
                     if (goo != null) {
                         goo.accept(page);
+                        page.flushDirtySlots();
                     }
-                }catch (Exception e){
-                    this.observer.sendMessage(Text.of(TextColors.RED, "Impossible refresh action - closing broken State."));
+                } catch (Exception e) {
+                    HuskyUI.getLogger().error("Error occurred while refreshing State \"" + currentState + "\".", e);
+                    observer.sendMessage(Text.of(TextColors.RED, "Impossible refresh action - closing broken State."));
                 }
                 break;
             default:
-                this.observer.sendMessage(Text.of("??"));
+                observer.sendMessage(Text.of("??"));
                 break;
         }
     }
@@ -0,0 +1,164 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.states.action;
+
+import com.codehusky.huskyui.StateContainer;
+import com.codehusky.huskyui.StateRef;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.item.inventory.Inventory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Everything about a single run of an {@link Action} that
+ * differs between runs.
+ *
+ * <p>Keeping this out of the Action itself means one Action
+ * can be shared by every {@link Player} that triggers it,
+ * instead of being copied for each of them.</p>
+ */
+public class ActionContext {
+
+    /**
+     * The {@link Player} the Action is being performed for.
+     */
+    @Nonnull private final Player observer;
+
+    /**
+     * The ID of the {@link com.codehusky.huskyui.states.State}
+     * the Action was triggered from.
+     */
+    @Nonnull private final String currentState;
+
+    /**
+     * The {@link Inventory} the Action was triggered from, if any.
+     */
+    @Nullable private final Inventory inventory;
+
+    /**
+     * The {@link StateContainer} the Action was triggered from, if known.
+     */
+    @Nullable private final StateContainer container;
+
+    /**
+     * The {@link StateRef} of the State the Action was triggered from, if known.
+     */
+    @Nullable private final StateRef stateRef;
+
+    /**
+     * Constructs an ActionContext.
+     *
+     * @param observer the Player the Action is performed for
+     * @param currentState the ID of the State the Action was triggered from
+     * @param inventory the Inventory the Action was triggered from, if any
+     */
+    public ActionContext(@Nonnull final Player observer,
+                         @Nonnull final String currentState,
+                         @Nullable final Inventory inventory) {
+        this(observer, currentState, inventory, null);
+    }
+
+    /**
+     * Constructs an ActionContext that knows its {@link StateContainer}.
+     *
+     * @param observer the Player the Action is performed for
+     * @param currentState the ID of the State the Action was triggered from
+     * @param inventory the Inventory the Action was triggered from, if any
+     * @param container the StateContainer the Action was triggered from, if known
+     */
+    public ActionContext(@Nonnull final Player observer,
+                         @Nonnull final String currentState,
+                         @Nullable final Inventory inventory,
+                         @Nullable final StateContainer container) {
+        this(observer, currentState, inventory, container, null);
+    }
+
+    /**
+     * Constructs an ActionContext that knows the {@link StateRef}
+     * of the State it was triggered from.
+     *
+     * @param observer the Player the Action is performed for
+     * @param currentState the ID of the State the Action was triggered from
+     * @param inventory the Inventory the Action was triggered from, if any
+     * @param container the StateContainer the Action was triggered from, if known
+     * @param stateRef the StateRef of the State the Action was triggered from, if known
+     */
+    public ActionContext(@Nonnull final Player observer,
+                         @Nonnull final String currentState,
+                         @Nullable final Inventory inventory,
+                         @Nullable final StateContainer container,
+                         @Nullable final StateRef stateRef) {
+        this.observer = observer;
+        this.currentState = currentState;
+        this.inventory = inventory;
+        this.container = container;
+        this.stateRef = stateRef;
+    }
+
+    /**
+     * Gets the {@link Player} the Action is being performed for.
+     *
+     * @return the Player the Action is performed for
+     */
+    @Nonnull
+    public Player getObserver() {
+        return this.observer;
+    }
+
+    /**
+     * Gets the ID of the {@link com.codehusky.huskyui.states.State}
+     * the Action was triggered from.
+     *
+     * @return the ID of the current State
+     */
+    @Nonnull
+    public String getCurrentState() {
+        return this.currentState;
+    }
+
+    /**
+     * Gets the {@link Inventory} the Action was triggered from.
+     *
+     * @return the Inventory, or null if triggered outside of one
+     */
+    @Nullable
+    public Inventory getInventory() {
+        return this.inventory;
+    }
+
+    /**
+     * Gets the {@link StateContainer} the Action was triggered from.
+     *
+     * @return the StateContainer, or null if not known
+     */
+    @Nullable
+    public StateContainer getContainer() {
+        return this.container;
+    }
+
+    /**
+     * Gets the {@link StateRef} of the State the Action was triggered from.
+     *
+     * @return the StateRef, or null if not known
+     */
+    @Nullable
+    public StateRef getStateRef() {
+        return this.stateRef;
+    }
+}
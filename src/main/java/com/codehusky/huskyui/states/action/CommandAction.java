@@ -3,7 +3,6 @@ package com.codehusky.huskyui.states.action;
 import com.codehusky.huskyui.StateContainer;
 import com.codehusky.huskyui.states.State;
 import org.spongepowered.api.Sponge;
-import org.spongepowered.api.item.inventory.Inventory;
 
 import javax.annotation.Nonnull;
 /**
@@ -45,10 +44,10 @@ public class CommandAction extends Action {
     }
 
     @Override
-    public void runAction(@Nonnull String currentState, Inventory inventory) {
+    public void runAction(@Nonnull ActionContext context) {
         Sponge.getCommandManager().process(this.receiver == CommandReceiver.SERVER ?
-            Sponge.getServer().getConsole() : getObserver(), this.command);
-        super.runAction(currentState,inventory);
+            Sponge.getServer().getConsole() : context.getObserver(), this.command);
+        super.runAction(context);
     }
 
     @Nonnull
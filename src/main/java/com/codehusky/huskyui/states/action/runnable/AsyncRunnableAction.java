@@ -0,0 +1,205 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.states.action.runnable;
+
+import com.codehusky.huskyui.HuskyUI;
+import com.codehusky.huskyui.PlayerSession;
+import com.codehusky.huskyui.StateContainer;
+import com.codehusky.huskyui.states.Page;
+import com.codehusky.huskyui.states.action.Action;
+import com.codehusky.huskyui.states.action.ActionContext;
+import com.codehusky.huskyui.states.action.ActionType;
+import com.google.common.collect.Maps;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.scheduler.Task;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.format.TextColors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link RunnableAction} alternative whose work runs off the main thread.
+ *
+ * <p>The {@link AsyncUIRunnable} is called on the HuskyUI async executor.
+ * Once its future completes, the navigation of this Action is performed
+ * back on the main thread, unless the player has since closed or left
+ * the Page it was clicked on. While that is pending, further clicks of
+ * the same player on any Page are rejected, for at most
+ * {@link #TIMEOUT_TICKS}; a run taking longer finishes without navigating.</p>
+ */
+public class AsyncRunnableAction extends Action {
+
+    /**
+     * How many ticks the clicks of a player are rejected for at most,
+     * should their run never complete.
+     */
+    public static final int TIMEOUT_TICKS = 30 * 20;
+
+    /**
+     * The run still in progress of every player that has one, keyed by
+     * their unique ID. A run only clears its own entry, so one released
+     * and started again is not cleared by the run it replaced.
+     * Only touched on the main thread.
+     */
+    @Nonnull private static final Map<UUID, Object> inFlight = Maps.newHashMap();
+
+    /**
+     * The AsyncUIRunnable that determines this action to be taken.
+     */
+    @Nonnull private final AsyncUIRunnable runnable;
+
+    /**
+     * Constructs a new AsyncRunnableAction.
+     *
+     * @param container the {@link StateContainer} responsible for this AsyncRunnableAction
+     * @param type the type of {@link Action} being performed
+     * @param goalState the destination for a {@link Player}
+     *                  after this Action is completed
+     * @param runnable the additional Action to be performed
+     */
+    public AsyncRunnableAction(@Nonnull final StateContainer container,
+                               @Nonnull final ActionType type,
+                               @Nonnull final String goalState,
+                               @Nonnull final AsyncUIRunnable runnable) {
+        super(container, type, goalState);
+        this.runnable = runnable;
+    }
+
+    /**
+     * Gets the additional action to be performed.
+     *
+     * @return the additional actions to be performed
+     */
+    @Nonnull
+    public AsyncUIRunnable getRunnable() {
+        return this.runnable;
+    }
+
+    /**
+     * Determines whether or not a player has a run still in progress.
+     *
+     * @param owner the unique ID of the player
+     * @return true if their clicks are currently rejected; false otherwise
+     */
+    public static boolean isInFlight(@Nonnull final UUID owner) {
+        return inFlight.containsKey(owner);
+    }
+
+    /**
+     * Rejects a click of a player that has a run still in progress,
+     * telling them to wait. Nothing else is done about the click.
+     *
+     * @param observer the Player who clicked
+     * @return true if the click was rejected; false otherwise
+     */
+    public static boolean rejectIfInFlight(@Nonnull final Player observer) {
+        if (!isInFlight(observer.getUniqueId())) {
+            return false;
+        }
+        observer.sendMessage(Text.of(TextColors.RED, "Please wait for your last action to finish."));
+        return true;
+    }
+
+    /**
+     * Stops rejecting the clicks of a player, such as when they disconnect.
+     * A run still in progress will finish without navigating.
+     *
+     * @param owner the unique ID of the player
+     */
+    public static void release(@Nonnull final UUID owner) {
+        inFlight.remove(owner);
+    }
+
+    /**
+     * Runs the additional actions on the async executor, then
+     * performs the navigation on the main thread.
+     *
+     * @param context the details of this run of the Action
+     */
+    @Override
+    public void runAction(@Nonnull final ActionContext context) {
+        final Player observer = context.getObserver();
+        final UUID owner = observer.getUniqueId();
+        if (rejectIfInFlight(observer)) {
+            return;
+        }
+        final Object token = new Object();
+        inFlight.put(owner, token);
+
+        final HuskyUI plugin = HuskyUI.getInstance();
+        final Page clickedOn = getCurrentPage(owner);
+        // CompletableFuture#orTimeout needs Java 9, so a task releases the player instead.
+        final Task timeout = Task.builder().execute(() -> {
+            if (inFlight.remove(owner, token)) {
+                HuskyUI.getLogger().warn("A HuskyUI async action took longer than " + TIMEOUT_TICKS + " ticks.");
+            }
+        }).delayTicks(TIMEOUT_TICKS).submit(plugin);
+        CompletableFuture.supplyAsync(() -> this.runnable.run(context), plugin.getAsyncExecutor())
+                .thenCompose(future -> future)
+                .whenCompleteAsync((result, error) -> {
+                    timeout.cancel();
+                    if (!inFlight.remove(owner, token) || !observer.isOnline()) {
+                        return;
+                    }
+                    if (error != null) {
+                        HuskyUI.getLogger().error("Error occurred while running a HuskyUI async action.", error);
+                        observer.sendMessage(Text.of(TextColors.RED, "Something went wrong while running this action."));
+                        return;
+                    }
+                    if (clickedOn != null && getCurrentPage(owner) != clickedOn) {
+                        return; // the player moved on, so navigating now would pull them back
+                    }
+                    try {
+                        super.runAction(context);
+                    } catch (RuntimeException e) {
+                        HuskyUI.getLogger().error("Error occurred while navigating after a HuskyUI async action.", e);
+                    }
+                }, plugin.getSyncExecutor());
+    }
+
+    /**
+     * Gets the {@link Page} view a player currently has open.
+     *
+     * @param owner the unique ID of the player
+     * @return the open Page view, or null if they have none open
+     */
+    @Nullable
+    private static Page getCurrentPage(@Nonnull final UUID owner) {
+        return HuskyUI.getInstance().getSessionRegistry().getSession(owner)
+                .map(PlayerSession::getCurrent)
+                .map(PlayerSession.View::getPage)
+                .orElse(null);
+    }
+
+    /**
+     * Creates a copy of this AsyncRunnableAction.
+     *
+     * @param newContainer the new {@link StateContainer} to be responsible for this new Action
+     * @return a copy of this AsyncRunnableAction
+     */
+    @Nonnull
+    @Override
+    public AsyncRunnableAction copy(@Nonnull final StateContainer newContainer) {
+        // AsyncUIRunnable doesn't need to be copied - it's just an action.
+        return new AsyncRunnableAction(newContainer, this.getType(), this.getGoalState(), this.runnable);
+    }
+}
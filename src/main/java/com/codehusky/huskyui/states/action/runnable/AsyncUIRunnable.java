@@ -0,0 +1,44 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui.states.action.runnable;
+
+import com.codehusky.huskyui.states.action.ActionContext;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A pre-determined action to be run off the main thread when
+ * interfacing with a Page, such as one doing economy or database calls.
+ *
+ * <p>This is called on the HuskyUI async executor, so it must not touch
+ * the world, inventories or most of the Sponge API. Anything that has to
+ * happen on the main thread can be handed to
+ * {@link com.codehusky.huskyui.HuskyUI#getSyncExecutor()}.</p>
+ */
+public interface AsyncUIRunnable {
+
+    /**
+     * The additional actions to be run when interfacing with a Page.
+     *
+     * @param context the details of the run of the AsyncRunnableAction
+     * @return a future completing once the actions are done
+     */
+    @Nonnull
+    CompletableFuture<?> run(@Nonnull final ActionContext context);
+}
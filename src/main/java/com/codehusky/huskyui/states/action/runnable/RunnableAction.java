@@ -19,8 +19,9 @@ package com.codehusky.huskyui.states.action.runnable;
 
 import com.codehusky.huskyui.StateContainer;
 import com.codehusky.huskyui.states.action.Action;
+import com.codehusky.huskyui.states.action.ActionContext;
 import com.codehusky.huskyui.states.action.ActionType;
-import org.spongepowered.api.item.inventory.Inventory;
+import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.format.TextColors;
 
@@ -38,6 +39,12 @@ public class RunnableAction extends Action {
      */
     @Nullable private UIRunnable runnable;
 
+    /**
+     * The context of the run this RunnableAction was handed to the
+     * {@link UIRunnable} for, or null if this is the shared Action itself.
+     */
+    @Nullable private final ActionContext context;
+
     /**
      * Constructs a new RunnableAction without a pre-determined action.
      *
@@ -67,6 +74,19 @@ public class RunnableAction extends Action {
                           @Nullable final UIRunnable runnable) {
         super(container, type, goalState);
         this.runnable = runnable;
+        this.context = null;
+    }
+
+    /**
+     * Constructs the RunnableAction handed to the {@link UIRunnable} for a single run.
+     *
+     * @param action the shared RunnableAction being run
+     * @param context the details of the run
+     */
+    private RunnableAction(@Nonnull final RunnableAction action, @Nonnull final ActionContext context) {
+        super(action.getContainer(), action.getType(), action.getGoalState());
+        this.runnable = action.runnable;
+        this.context = context;
     }
 
     /**
@@ -88,19 +108,61 @@ public class RunnableAction extends Action {
         this.runnable = runnable;
     }
 
+    /**
+     * Gets the context of the run this RunnableAction was handed out for.
+     *
+     * <p>The {@link UIRunnable} is handed a RunnableAction of its own for
+     * every run, which keeps its context for as long as it is kept.</p>
+     *
+     * @return the ActionContext of the run, or null on the shared RunnableAction
+     */
+    @Nullable
+    public ActionContext getContext() {
+        return this.context;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>On the RunnableAction handed to the {@link UIRunnable},
+     * this returns the Player from the {@link ActionContext} of its run.</p>
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public Player getObserver() {
+        return (this.context != null) ? this.context.getObserver() : super.getObserver();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>On the RunnableAction handed to the {@link UIRunnable}, this returns
+     * the StateContainer the run was triggered from, if the {@link ActionContext}
+     * knows it, since the Action may be shared by copies of its container.</p>
+     */
+    @Nonnull
+    @Override
+    public StateContainer getContainer() {
+        if (this.context != null && this.context.getContainer() != null) {
+            return this.context.getContainer();
+        }
+        return super.getContainer();
+    }
+
     /**
      * Runs the additional actions.
      *
-     * @param currentState the current State before the Action is performed
+     * @param context the details of this run of the Action
      */
     @Override
-    public void runAction(@Nonnull final String currentState, Inventory inventory) {
+    public void runAction(@Nonnull final ActionContext context) {
         if (this.runnable != null) {
-            this.runnable.run(this);
+            // The shared Action is left untouched, so the runnable may keep what it is handed.
+            this.runnable.run(new RunnableAction(this, context));
         } else {
-            this.getObserver().sendMessage(Text.of(TextColors.RED, "Cannot run a null action!"));
+            context.getObserver().sendMessage(Text.of(TextColors.RED, "Cannot run a null action!"));
         }
-        super.runAction(currentState,inventory);
+        super.runAction(context);
     }
 
     /**
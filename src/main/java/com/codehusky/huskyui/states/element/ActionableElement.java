@@ -18,10 +18,13 @@
 package com.codehusky.huskyui.states.element;
 
 import com.codehusky.huskyui.StateContainer;
+import com.codehusky.huskyui.states.BindingContext;
 import com.codehusky.huskyui.states.action.Action;
 import com.codehusky.huskyui.states.action.CommandAction;
 import org.spongepowered.api.item.inventory.ItemStack;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Function;
 
 /**
  * An extension of {@link Element} that also wraps
@@ -46,6 +49,20 @@ public class ActionableElement extends Element {
         this.action = action;
     }
 
+    /**
+     * Constructs a new bound ActionableElement, whose {@link ItemStack} is
+     * resolved from the {@link BindingContext} its container is launched with.
+     *
+     * @param action the {@link Action} to be performed
+     * @param placeholder the ItemStack shown when there is no BindingContext
+     * @param binder resolves the ItemStack shown for a BindingContext
+     */
+    public ActionableElement(@Nonnull final Action action, @Nonnull final ItemStack placeholder,
+                             @Nullable final Function<BindingContext, ItemStack> binder) {
+        super(placeholder, binder);
+        this.action = action;
+    }
+
     /**
      * Gets the {@link Action} to be performed on this Element.
      *
@@ -66,6 +83,6 @@ public class ActionableElement extends Element {
     @Nonnull
     @Override
     public ActionableElement copy(@Nonnull final StateContainer newContainer) {
-        return new ActionableElement(this.action.copy(newContainer), this.getItem().copy());
+        return new ActionableElement(this.action.copy(newContainer), this.getItem().copy(), this.getBinder());
     }
 }
@@ -18,8 +18,11 @@
 package com.codehusky.huskyui.states.element;
 
 import com.codehusky.huskyui.StateContainer;
+import com.codehusky.huskyui.states.BindingContext;
 import org.spongepowered.api.item.inventory.ItemStack;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.function.Function;
 
 /**
  * A basic Element is, essentially, a simple wrapper for
@@ -32,13 +35,31 @@ public class Element {
      */
     @Nonnull private final ItemStack item;
 
+    /**
+     * Resolves the {@link ItemStack} shown for a player of a template
+     * container, if this Element is bound.
+     */
+    @Nullable private final Function<BindingContext, ItemStack> binder;
+
     /**
      * Constructs a new Element.
      *
      * @param item the {@link ItemStack} to be wrapped
      */
     public Element(@Nonnull final ItemStack item) {
-        this.item = item;
+        this(item, null);
+    }
+
+    /**
+     * Constructs a new bound Element, whose {@link ItemStack} is resolved
+     * from the {@link BindingContext} its container is launched with.
+     *
+     * @param placeholder the ItemStack shown when there is no BindingContext
+     * @param binder resolves the ItemStack shown for a BindingContext
+     */
+    public Element(@Nonnull final ItemStack placeholder, @Nullable final Function<BindingContext, ItemStack> binder) {
+        this.item = placeholder;
+        this.binder = binder;
     }
 
     /**
@@ -51,6 +72,36 @@ public class Element {
         return this.item;
     }
 
+    /**
+     * Gets the {@link ItemStack} shown for a {@link BindingContext}.
+     *
+     * @param context the BindingContext being rendered for
+     * @return the bound ItemStack, or the wrapped one if this Element isn't bound
+     */
+    @Nonnull
+    public ItemStack getItem(@Nonnull final BindingContext context) {
+        return (this.binder != null) ? this.binder.apply(context) : this.item;
+    }
+
+    /**
+     * Determines whether or not this Element is resolved from a {@link BindingContext}.
+     *
+     * @return true if bound; false otherwise
+     */
+    public boolean isBound() {
+        return this.binder != null;
+    }
+
+    /**
+     * Gets what resolves the {@link ItemStack} of this Element.
+     *
+     * @return the binder, or null if this Element isn't bound
+     */
+    @Nullable
+    protected Function<BindingContext, ItemStack> getBinder() {
+        return this.binder;
+    }
+
     /**
      * Creates a copy of this Element.
      *
@@ -60,6 +111,6 @@ public class Element {
      */
     @Nonnull
     public Element copy(@Nonnull final StateContainer newContainer) { // We don't use this on purpose.
-        return new Element(this.item.copy());
+        return new Element(this.item.copy(), this.binder);
     }
 }
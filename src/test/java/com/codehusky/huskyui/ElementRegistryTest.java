@@ -0,0 +1,122 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import com.codehusky.huskyui.states.element.Element;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spongepowered.api.item.ItemType;
+import org.spongepowered.api.item.inventory.ItemStack;
+import org.spongepowered.api.item.inventory.ItemStackSnapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ElementRegistryTest {
+
+    private ElementRegistry registry;
+
+    @BeforeClass
+    public static void installSponge() {
+        TestSponge.install();
+    }
+
+    @Before
+    public void setUp() {
+        this.registry = new ElementRegistry();
+    }
+
+    private static Element element() {
+        final ItemStack item = mock(ItemStack.class);
+        final ItemStack tagged = mock(ItemStack.class);
+        final ItemStackSnapshot snapshot = mock(ItemStackSnapshot.class);
+        when(item.copy()).thenReturn(tagged);
+        when(tagged.createSnapshot()).thenReturn(snapshot);
+        when(snapshot.getType()).thenReturn(mock(ItemType.class));
+        return new Element(item);
+    }
+
+    @Test
+    public void idsKeepCountingPastTheInitialCapacity() {
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, this.registry.registerElement(element()));
+        }
+        assertTrue(this.registry.elementExists(39));
+        assertFalse(this.registry.elementExists(40));
+        assertNull(this.registry.getElement(-1));
+    }
+
+    @Test
+    public void fixedSlotIsBoundToItsElement() {
+        final Element element = element();
+        final int id = this.registry.registerAutoElement(4, element);
+
+        assertSame(element, this.registry.getElement(id));
+        assertEquals(id, this.registry.getFixedElementAt(4));
+        assertEquals(-1, this.registry.getFixedElementAt(3));
+        assertTrue(this.registry.isElementFixedAuto(id));
+        assertTrue(this.registry.hasFixedAutoElements());
+    }
+
+    @Test
+    public void rebindingTheOnlySlotOfAnElementUnfixesIt() {
+        final int first = this.registry.registerAutoElement(0, element());
+        final int second = this.registry.registerAutoElement(0, element());
+
+        assertEquals(second, this.registry.getFixedElementAt(0));
+        assertTrue(this.registry.isElementAuto(first));
+        assertFalse(this.registry.isElementFixedAuto(first));
+        assertTrue(this.registry.isElementFixedAuto(second));
+    }
+
+    @Test
+    public void elementStaysFixedWhileItHoldsAnySlot() {
+        final int first = this.registry.registerAutoElement(0, element());
+        this.registry.registerAutoElement(8, first);
+        this.registry.registerAutoElement(0, element());
+
+        assertTrue(this.registry.isElementFixedAuto(first));
+        assertEquals(first, this.registry.getFixedElementAt(8));
+        assertEquals(2, this.registry.getAutoItemLocations().size());
+    }
+
+    @Test
+    public void unregisteringFreesEverySlot() {
+        final int id = this.registry.registerAutoElement(1, element());
+        this.registry.registerAutoElement(2, id);
+        this.registry.unregisterElement(id);
+
+        assertFalse(this.registry.elementExists(id));
+        assertNull(this.registry.getElement(id));
+        assertEquals(-1, this.registry.getFixedElementAt(1));
+        assertEquals(-1, this.registry.getFixedElementAt(2));
+        assertTrue(this.registry.getAutoItemLocations().isEmpty());
+        assertFalse(this.registry.hasFixedAutoElements());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void negativeSlotsAreRejected() {
+        this.registry.registerAutoElement(-1, element());
+    }
+}
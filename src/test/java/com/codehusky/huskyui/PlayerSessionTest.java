@@ -0,0 +1,156 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import com.codehusky.huskyui.states.Page;
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spongepowered.api.item.inventory.Inventory;
+import org.spongepowered.api.item.inventory.ItemStackSnapshot;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class PlayerSessionTest {
+
+    private PlayerSession session;
+    private StateContainer container;
+
+    @BeforeClass
+    public static void installSponge() {
+        TestSponge.install();
+    }
+
+    @Before
+    public void setUp() {
+        this.session = new PlayerSession(UUID.randomUUID());
+        this.container = new StateContainer();
+    }
+
+    private PlayerSession.View view(final String id) {
+        return this.view(id, mock(Page.class));
+    }
+
+    private PlayerSession.View view(final String id, final Page page) {
+        return new PlayerSession.View(this.container, this.container.getRef(id), page, mock(Inventory.class));
+    }
+
+    private static PlayerSession.PrefetchedPage prefetched(final long tick) {
+        return new PlayerSession.PrefetchedPage(new ItemStackSnapshot[0], Maps.newHashMap(), tick);
+    }
+
+    @Test
+    public void historyKeepsTheMostRecentViews() {
+        final PlayerSession.View first = this.view("first");
+        final PlayerSession.View second = this.view("second");
+        final PlayerSession.View third = this.view("third");
+        final PlayerSession.View fourth = this.view("fourth");
+
+        this.session.push(first, 2);
+        this.session.push(second, 2);
+        this.session.push(third, 2);
+        this.session.push(fourth, 2);
+
+        final List<PlayerSession.View> history = this.session.getHistory();
+        assertEquals(2, history.size());
+        assertSame(third, history.get(0));
+        assertSame(second, history.get(1));
+        assertSame(fourth, this.session.getCurrent());
+    }
+
+    @Test
+    public void reopeningTheSameViewKeepsHistory() {
+        final Page page = mock(Page.class);
+        this.session.push(this.view("first", page), 5);
+        this.session.push(this.view("first", page), 5);
+
+        assertTrue(this.session.getHistory().isEmpty());
+    }
+
+    @Test
+    public void popOnlyTakesTheMostRecentMatchingView() {
+        final PlayerSession.View first = this.view("first");
+        this.session.push(first, 5);
+        this.session.push(this.view("second"), 5);
+
+        assertFalse(this.session.peekIf(this.container, "second"));
+        assertTrue(this.session.peekIf(this.container, "first"));
+        assertNull(this.session.popIf(this.container, "second"));
+        assertNull(this.session.popIf(new StateContainer(), "first"));
+        assertSame(first, this.session.popIf(this.container, "first"));
+        assertTrue(this.session.getHistory().isEmpty());
+    }
+
+    @Test
+    public void closingOnlyForgetsTheCurrentView() {
+        final PlayerSession.View first = this.view("first");
+        final PlayerSession.View second = this.view("second");
+        this.session.push(first, 5);
+        this.session.push(second, 5);
+
+        assertFalse(this.session.closed(first.getPage()));
+        assertTrue(this.session.closed(second.getPage()));
+        assertNull(this.session.getCurrent());
+        assertTrue(this.session.getHistory().isEmpty());
+    }
+
+    @Test
+    public void prefetchKeepsTheNewestPagesUpToTheLimit() {
+        final Page definition = mock(Page.class);
+        this.session.storePrefetched(definition, 0, prefetched(0), 2);
+        this.session.storePrefetched(definition, 1, prefetched(0), 2);
+        this.session.storePrefetched(definition, 2, prefetched(0), 2);
+
+        assertEquals(2, this.session.getPrefetchedCount());
+        assertFalse(this.session.hasPrefetched(definition, 0, 0));
+        assertTrue(this.session.hasPrefetched(definition, 1, 0));
+        assertTrue(this.session.hasPrefetched(definition, 2, 0));
+        assertFalse(this.session.hasPrefetched(mock(Page.class), 1, 0));
+    }
+
+    @Test
+    public void prefetchedPagesAreOnlyTakenOnce() {
+        final Page definition = mock(Page.class);
+        final PlayerSession.PrefetchedPage page = prefetched(10);
+        this.session.storePrefetched(definition, 0, page, 2);
+
+        assertSame(page, this.session.takePrefetched(definition, 0, 10));
+        assertNull(this.session.takePrefetched(definition, 0, 10));
+        assertEquals(0, this.session.getPrefetchedCount());
+    }
+
+    @Test
+    public void expiredPagesAreNotUsed() {
+        final Page definition = mock(Page.class);
+        this.session.storePrefetched(definition, 0, prefetched(10), 2);
+
+        assertTrue(this.session.hasPrefetched(definition, 0, 10));
+        assertFalse(this.session.hasPrefetched(definition, 0, 11));
+        assertNull(this.session.takePrefetched(definition, 0, 11));
+        assertEquals(0, this.session.getPrefetchedCount());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import com.codehusky.huskyui.states.State;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StateContainerTest {
+
+    private StateContainer container;
+    private State root;
+    private State child;
+
+    @Before
+    public void setUp() {
+        this.container = new StateContainer();
+        this.root = new State("root");
+        this.child = new State("child");
+        this.child.setParent("root");
+        this.container.addState(this.root);
+        this.container.addState(this.child);
+    }
+
+    @Test
+    public void copySharesStatesUntilOneIsHandedOut() {
+        final StateContainer copy = this.container.copy();
+
+        assertSame(this.root, copy.getRef("root").getState());
+
+        final State owned = copy.getState("root");
+        assertNotSame(this.root, owned);
+        assertSame(copy, owned.getContainer());
+        assertSame(owned, copy.getState("root"));
+        assertSame(this.root, this.container.getRef("root").getState());
+    }
+
+    @Test
+    public void addingAndRemovingStatesOnlyChangesThatContainer() {
+        final StateContainer copy = this.container.copy();
+
+        copy.addState(new State("extra"));
+        this.container.removeState("child");
+
+        assertTrue(copy.hasState("extra"));
+        assertFalse(this.container.hasState("extra"));
+        assertTrue(copy.hasState("child"));
+        assertFalse(this.container.hasState("child"));
+    }
+
+    @Test
+    public void parentsAreResolvedPerContainer() {
+        this.container.validate();
+        final StateContainer copy = this.container.copy();
+        copy.validate();
+
+        assertSame(this.root, this.container.getParentRef(this.child).getState());
+        assertSame(copy, copy.getParentRef(this.child).getContainer());
+    }
+
+    @Test
+    public void sealedContainerHandsOutTheSameStates() {
+        this.container.seal();
+
+        assertTrue(this.container.isSealed());
+        assertSame(this.container.getState("root"), this.container.getState("root"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sealedContainerStatesCannotBeReplaced() {
+        this.container.seal();
+        this.container.getStates().put("root", new State("root"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void sealedContainerCannotBeEdited() {
+        this.container.seal();
+        this.container.editState("root");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void sealedContainerCannotGainStates() {
+        this.container.seal();
+        this.container.addState(new State("extra"));
+    }
+
+    @Test
+    public void invalidContainerIsLeftUnsealed() {
+        final State orphan = new State("orphan");
+        orphan.setParent("missing");
+        this.container.addState(orphan);
+
+        try {
+            this.container.seal();
+        } catch (IllegalStateException e) {
+            assertFalse(this.container.isSealed());
+            return;
+        }
+        throw new AssertionError("Sealing a container with a missing parent should fail.");
+    }
+
+    @Test
+    public void copyOfASealedContainerCanBeEdited() {
+        this.container.seal();
+        final StateContainer copy = this.container.copy();
+
+        assertFalse(copy.isSealed());
+        assertNotNull(copy.editState("root"));
+        assertSame(this.root, this.container.getState("root"));
+    }
+
+    @Test
+    public void sealingOnlyFreezesStatesOfThatContainer() {
+        final StateContainer copy = this.container.copy();
+        this.container.seal();
+
+        assertNotSame(this.root, this.container.getState("root"));
+        assertSame(this.root, copy.getRef("root").getState());
+        assertNotNull(copy.editState("root"));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import org.spongepowered.api.Game;
+import org.spongepowered.api.GameRegistry;
+import org.spongepowered.api.Server;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.scheduler.Scheduler;
+import org.spongepowered.api.scheduler.Task;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A stand-in for the parts of Sponge that HuskyUI touches outside of a
+ * running server: builders come back as mocks, and tasks are handed to
+ * the test to be run by hand instead of being scheduled.
+ */
+final class TestSponge {
+
+    private static final Game GAME = mock(Game.class);
+    private static final GameRegistry REGISTRY = mock(GameRegistry.class);
+    private static final Server SERVER = mock(Server.class);
+    private static final Scheduler SCHEDULER = mock(Scheduler.class);
+    private static final Task.Builder TASK_BUILDER = mock(Task.Builder.class, RETURNS_SELF);
+
+    private static boolean installed;
+    private static Runnable lastTask;
+    private static Task lastSubmitted;
+
+    private TestSponge() {}
+
+    /**
+     * Puts the stand-in in place of Sponge. Must be called before any
+     * class that builds Sponge objects in its static initializer is loaded.
+     */
+    @SuppressWarnings("unchecked")
+    static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        when(GAME.getRegistry()).thenReturn(REGISTRY);
+        when(GAME.getServer()).thenReturn(SERVER);
+        when(GAME.getScheduler()).thenReturn(SCHEDULER);
+        when(SERVER.getTicksPerSecond()).thenReturn(20.0);
+        when(SCHEDULER.createTaskBuilder()).thenReturn(TASK_BUILDER);
+        doAnswer(invocation -> {
+            final Class<?> type = invocation.getArgument(0);
+            return (type == Task.Builder.class) ? TASK_BUILDER : mock(type, RETURNS_DEEP_STUBS);
+        }).when(REGISTRY).createBuilder(any(Class.class));
+        doAnswer(invocation -> {
+            lastTask = invocation.getArgument(0);
+            return TASK_BUILDER;
+        }).when(TASK_BUILDER).execute(any(Runnable.class));
+        doAnswer(invocation -> {
+            lastSubmitted = mock(Task.class);
+            return lastSubmitted;
+        }).when(TASK_BUILDER).submit(any());
+
+        final List<Object> services = Arrays.asList(GAME, REGISTRY, SERVER, SCHEDULER);
+        try {
+            for (final Field field : Sponge.class.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                    continue;
+                }
+                for (final Object service : services) {
+                    if (field.getType().isInstance(service)) {
+                        field.setAccessible(true);
+                        field.set(null, service);
+                        break;
+                    }
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not stand in for Sponge.", e);
+        }
+        installed = true;
+    }
+
+    /**
+     * Gets what the last task built was set to execute.
+     *
+     * @return the body of the last task
+     */
+    static Runnable getLastTask() {
+        return lastTask;
+    }
+
+    /**
+     * Gets the last task submitted.
+     *
+     * @return the last Task
+     */
+    static Task getLastSubmitted() {
+        return lastSubmitted;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * This file is part of HuskyUI.
+ *
+ * HuskyUI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * HuskyUI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with HuskyUI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.codehusky.huskyui;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.spongepowered.api.scheduler.Task;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+
+public class UpdateSchedulerTest {
+
+    private UpdateScheduler scheduler;
+
+    @BeforeClass
+    public static void installSponge() {
+        TestSponge.install();
+    }
+
+    @Before
+    public void setUp() {
+        this.scheduler = new UpdateScheduler();
+    }
+
+    /**
+     * An Updater that records the elapsed ticks of every run,
+     * taking at least a given time to do so.
+     */
+    private static final class Recorder implements UpdateScheduler.Updater {
+
+        private final int interval;
+        private final long busyNanos;
+        private final List<Long> runs = Lists.newArrayList();
+
+        private Recorder(final int interval, final long busyNanos) {
+            this.interval = interval;
+            this.busyNanos = busyNanos;
+        }
+
+        @Override
+        public int getInterval() {
+            return this.interval;
+        }
+
+        @Override
+        public void update(final long elapsedTicks) {
+            this.runs.add(elapsedTicks);
+            final long start = System.nanoTime();
+            while (System.nanoTime() - start < this.busyNanos) {
+                // keep the tick busy
+            }
+        }
+    }
+
+    private static void tick(final int times) {
+        for (int i = 0; i < times; i++) {
+            TestSponge.getLastTask().run();
+        }
+    }
+
+    @Test
+    public void runsOnTheNextTickThenEveryInterval() {
+        final Recorder recorder = new Recorder(3, 0);
+        this.scheduler.schedule(recorder);
+
+        tick(7);
+
+        assertEquals(Arrays.asList(0L, 3L, 6L), recorder.runs);
+    }
+
+    @Test
+    public void cancellingTheLastUpdaterStopsTheTask() {
+        final Recorder recorder = new Recorder(1, 0);
+        final UpdateScheduler.Handle handle = this.scheduler.schedule(recorder);
+        final Task task = TestSponge.getLastSubmitted();
+        final Runnable body = TestSponge.getLastTask();
+
+        this.scheduler.cancel(handle);
+        body.run();
+
+        assertTrue(handle.isCancelled());
+        assertEquals(0, this.scheduler.getLiveCount());
+        assertTrue(recorder.runs.isEmpty());
+        verify(task).cancel();
+    }
+
+    @Test
+    public void cancelAllOnlyCancelsThatPlayer() {
+        final UUID owner = UUID.randomUUID();
+        final UpdateScheduler.Handle first = this.scheduler.schedule(new Recorder(1, 0), owner);
+        final UpdateScheduler.Handle second = this.scheduler.schedule(new Recorder(1, 0), owner);
+        final UpdateScheduler.Handle other = this.scheduler.schedule(new Recorder(1, 0), UUID.randomUUID());
+
+        this.scheduler.cancelAll(owner);
+
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+        assertFalse(other.isCancelled());
+        assertEquals(0, this.scheduler.getLiveCount(owner));
+        assertEquals(1, this.scheduler.getLiveCount());
+    }
+
+    @Test
+    public void updatersOverBudgetTakeTurns() {
+        final Recorder first = new Recorder(1, 2000000);
+        final Recorder second = new Recorder(1, 2000000);
+        final Recorder third = new Recorder(1, 2000000);
+        this.scheduler.setTickBudget(1);
+        this.scheduler.schedule(first);
+        this.scheduler.schedule(second);
+        this.scheduler.schedule(third);
+
+        tick(1);
+
+        assertEquals(1, first.runs.size());
+        assertTrue(second.runs.isEmpty());
+        assertTrue(third.runs.isEmpty());
+        assertEquals(1, this.scheduler.getBudgetExceededCount());
+        assertEquals(2, this.scheduler.getDeferredCount());
+        assertFalse(this.scheduler.hasBudgetLeft());
+
+        tick(2);
+
+        assertFalse(second.runs.isEmpty());
+        assertFalse(third.runs.isEmpty());
+    }
+
+    @Test
+    public void chargesOnlyCountWhileSomethingIsScheduled() {
+        this.scheduler.setTickBudget(1);
+        this.scheduler.charge(5000000);
+        assertTrue(this.scheduler.hasBudgetLeft());
+
+        this.scheduler.schedule(new Recorder(1, 0));
+        this.scheduler.charge(5000000);
+        assertFalse(this.scheduler.hasBudgetLeft());
+
+        tick(1);
+        assertTrue(this.scheduler.hasBudgetLeft());
+    }
+
+    @Test
+    public void noBudgetAlwaysLeavesBudget() {
+        this.scheduler.schedule(new Recorder(1, 0));
+        this.scheduler.charge(Long.MAX_VALUE / 2);
+
+        assertTrue(this.scheduler.hasBudgetLeft());
+    }
+}